@@ -0,0 +1,218 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.core.lock;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures obtain() followed by lock/unlock of the {@link LockRegistry} implementations.
+ * <ul>
+ * <li>registry: default (striped, 'stripes' locks), adaptive (striped, starting with 'stripes' locks and growing)
+ * and instrumented (default decorated by {@link InstrumentedLockRegistry}). expirable (one lock per key) ignores
+ * 'stripes', so it is not on the default axis and is run once with a single 'stripes' value, by {@link #main} or with
+ * '-p registry=expirable -p stripes=256'.</li>
+ * <li>distribution: keys drawn uniformly, Zipfian (exponent 0.99, a few hot keys) or sequentially from 'keys' Long
+ * ids; the keys of every thread are generated at setup so drawing them is not measured.</li>
+ * <li>work: {@link Blackhole#consumeCPU(long)} tokens spent while holding the lock.</li>
+ * </ul>
+ * Throughput mode reports operations per microsecond, sample mode reports the latency percentiles of one operation.
+ * Run with 'mvn -P benchmark package' and then either 'java -jar target/benchmarks.jar LockRegistryBenchmark -t 8'
+ * for one thread count, or 'java -cp target/benchmarks.jar net.lcyframework.kernel.core.lock.LockRegistryBenchmark
+ * 1 4 16' for several.
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LockRegistryBenchmark {
+
+    private static final int KEYS_PER_THREAD = 1 << 16;
+    private static final double ZIPF_EXPONENT = 0.99D;
+    private static final int[] DEFAULT_THREAD_COUNTS = {1, 4, 16};
+    private static final String EXPIRABLE_STRIPES = "256";
+
+    @Param({"default", "adaptive", "instrumented"})
+    private String registry;
+
+    @Param({"uniform", "zipfian", "sequential"})
+    private String distribution;
+
+    @Param({"256", "4096"})
+    private int stripes;
+
+    @Param("100000")
+    private int keys;
+
+    @Param("0")
+    private long work;
+
+    private LockRegistry lockRegistry;
+
+    private double[] zipfCdf;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("default".equals(this.registry)) {
+            this.lockRegistry = new DefaultLockRegistry(this.stripes - 1);
+        } else if ("adaptive".equals(this.registry)) {
+            this.lockRegistry = new AdaptiveLockRegistry(this.stripes, Math.max(this.stripes, 1 << 16), 0.1D, 1000L);
+        } else if ("expirable".equals(this.registry)) {
+            this.lockRegistry = new LocalExpirableLockRegistry();
+        } else if ("instrumented".equals(this.registry)) {
+            this.lockRegistry = new InstrumentedLockRegistry(new DefaultLockRegistry(this.stripes - 1));
+        } else {
+            throw new IllegalArgumentException("unknown registry: " + this.registry);
+        }
+        if ("zipfian".equals(this.distribution)) {
+            this.zipfCdf = new double[this.keys];
+            double sum = 0D;
+            for (int i = 0; i < this.keys; i++) {
+                sum += 1D / Math.pow(i + 1, ZIPF_EXPONENT);
+                this.zipfCdf[i] = sum;
+            }
+            for (int i = 0; i < this.keys; i++) {
+                this.zipfCdf[i] /= sum;
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (this.lockRegistry instanceof LocalExpirableLockRegistry) {
+            ((LocalExpirableLockRegistry) this.lockRegistry).destroy();
+        } else if (this.lockRegistry instanceof AdaptiveLockRegistry) {
+            ((AdaptiveLockRegistry) this.lockRegistry).destroy();
+        }
+    }
+
+    /**
+     * The keys of one benchmark thread.
+     */
+    @State(Scope.Thread)
+    public static class ThreadKeys {
+
+        private Long[] lockKeys;
+
+        private int next;
+
+        @Setup(Level.Trial)
+        public void setUp(final LockRegistryBenchmark benchmark) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            this.lockKeys = new Long[KEYS_PER_THREAD];
+            long start = random.nextInt(benchmark.keys);
+            for (int i = 0; i < KEYS_PER_THREAD; i++) {
+                long id;
+                if ("uniform".equals(benchmark.distribution)) {
+                    id = random.nextInt(benchmark.keys);
+                } else if ("zipfian".equals(benchmark.distribution)) {
+                    id = zipf(benchmark.zipfCdf, random.nextDouble());
+                } else {
+                    id = (start + i) % benchmark.keys;
+                }
+                this.lockKeys[i] = id;
+            }
+        }
+
+        Long nextKey() {
+            Long lockKey = this.lockKeys[this.next];
+            this.next = (this.next + 1) & (KEYS_PER_THREAD - 1);
+            return lockKey;
+        }
+
+        private static int zipf(final double[] cdf, final double value) {
+            int low = 0;
+            int high = cdf.length - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cdf[mid] < value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    @Benchmark
+    public void obtainLockUnlock(final ThreadKeys threadKeys) {
+        Lock lock = this.lockRegistry.obtain(threadKeys.nextKey());
+        lock.lock();
+        try {
+            if (this.work > 0) {
+                Blackhole.consumeCPU(this.work);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs the benchmark once per thread count, the striped registries and then expirable with a single stripes
+     * value.
+     * @param args the thread counts, 1 4 16 by default.
+     * @throws RunnerException if a benchmark fails.
+     */
+    public static void main(final String[] args) throws RunnerException {
+        int[] threadCounts = DEFAULT_THREAD_COUNTS;
+        if (args.length > 0) {
+            threadCounts = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                threadCounts[i] = Integer.parseInt(args[i]);
+            }
+        }
+        for (int threads : threadCounts) {
+            Options options = new OptionsBuilder()
+                    .include(LockRegistryBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+            Options expirable = new OptionsBuilder()
+                    .include(LockRegistryBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .param("registry", "expirable")
+                    .param("stripes", EXPIRABLE_STRIPES)
+                    .build();
+            new Runner(expirable).run();
+        }
+    }
+}
@@ -0,0 +1,363 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.common.http;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.extern.slf4j.Slf4j;
+import net.lcyframework.kernel.core.consts.SysErrorConsts;
+import net.lcyframework.kernel.core.exception.SysException;
+
+/**
+ * <pre>
+ * 名称: CircuitBreaker
+ * 描述: 单个host的熔断器和舱壁
+ * 熔断: 基于最近windowSize次调用的失败率和慢调用率, 超过阈值后熔断打开并快速失败,
+ *      waitDurationInOpen后进入半开, 允许halfOpenCalls次探测, 探测结果决定关闭或重新打开
+ *      每次状态变化代数加一, 许可记录获取时的代数, 之前状态获取的许可归还时不计入当前状态的窗口
+ * 舱壁: 限制对该host的最大并发调用数, 避免一个慢依赖耗尽调用方的线程
+ * </pre>
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    private static final int PERCENT = 100;
+    private static final byte OUTCOME_FAILED = 1;
+    private static final byte OUTCOME_SLOW = 2;
+
+    /**
+     * 熔断状态
+     */
+    public enum State {
+        /** 关闭, 正常调用 */
+        CLOSED,
+        /** 打开, 快速失败 */
+        OPEN,
+        /** 半开, 允许少量探测 */
+        HALF_OPEN
+    }
+
+    /**
+     * 熔断状态变化监听
+     */
+    @FunctionalInterface
+    public interface StateListener {
+
+        /**
+         * 状态变化
+         * @param circuitBreaker 熔断器
+         * @param from 原状态
+         * @param to 新状态
+         */
+        void onStateChange(CircuitBreaker circuitBreaker, State from, State to);
+    }
+
+    private final String name;
+
+    private final CircuitBreakerConfig config;
+
+    private final Semaphore bulkhead;
+
+    private final List<StateListener> listeners = new CopyOnWriteArrayList<StateListener>();
+
+    /** 滑动窗口, 以下字段由this保护 */
+    private final byte[] window;
+    private int windowIndex;
+    private int bufferedCalls;
+    private int failedCalls;
+    private int slowCalls;
+    private int halfOpenPermits;
+    private long openedAt;
+
+    /** 状态代数, 由this保护写入 */
+    private volatile long generation;
+
+    private volatile State state = State.CLOSED;
+
+    private final LongAdder successfulCallCount = new LongAdder();
+    private final LongAdder failedCallCount = new LongAdder();
+    private final LongAdder slowCallCount = new LongAdder();
+    private final LongAdder notPermittedCallCount = new LongAdder();
+    private final LongAdder bulkheadRejectedCount = new LongAdder();
+
+    /**
+     * 构造方法
+     * @param name 名称, 一般为host
+     * @param config 配置
+     */
+    public CircuitBreaker(final String name, final CircuitBreakerConfig config) {
+        this.name = name;
+        this.config = config;
+        this.window = new byte[Math.max(1, config.getWindowSize())];
+        this.bulkhead = config.getMaxConcurrentCalls() > 0 ? new Semaphore(config.getMaxConcurrentCalls()) : null;
+    }
+
+    /**
+     * 获取调用许可, 熔断打开或并发已满时抛出异常
+     * 获取成功后必须调用{@link #onResult(long, boolean, long)}或{@link #releasePermission(long)}归还许可
+     * @return 许可, 即获取时的状态代数
+     */
+    public long acquirePermission() {
+        long permission = tryAcquireCircuitPermission();
+        if (permission < 0) {
+            notPermittedCallCount.increment();
+            throw new SysException(SysErrorConsts.CIRCUIT_BREAKER_OPEN_ERROR_CODE,
+                    "circuit breaker [" + name + "] is " + state + ", call not permitted");
+        }
+        if (bulkhead != null && !tryAcquireBulkhead()) {
+            releaseHalfOpenPermit(permission);
+            bulkheadRejectedCount.increment();
+            throw new SysException(SysErrorConsts.CALLRATE_ERROR_CODE,
+                    "bulkhead [" + name + "] is full, max concurrent calls " + config.getMaxConcurrentCalls());
+        }
+        return permission;
+    }
+
+    /**
+     * 记录调用结果并归还许可, 许可不是当前状态获取的(调用期间状态已变化)时不计入窗口
+     * @param permission {@link #acquirePermission()}返回的许可
+     * @param success 是否成功
+     * @param durationMillis 调用耗时(毫秒)
+     */
+    public void onResult(final long permission, final boolean success, final long durationMillis) {
+        if (bulkhead != null) {
+            bulkhead.release();
+        }
+        boolean slow = durationMillis >= config.getSlowCallDuration();
+        if (success) {
+            successfulCallCount.increment();
+        } else {
+            failedCallCount.increment();
+        }
+        if (slow) {
+            slowCallCount.increment();
+        }
+        State from;
+        State to;
+        synchronized (this) {
+            from = state;
+            if (from == State.OPEN || permission != generation) {
+                return;
+            }
+            record((byte) ((success ? 0 : OUTCOME_FAILED) | (slow ? OUTCOME_SLOW : 0)));
+            if (from == State.HALF_OPEN) {
+                if (bufferedCalls < halfOpenWindowSize()) {
+                    return;
+                }
+                to = isOverThreshold() ? State.OPEN : State.CLOSED;
+            } else {
+                if (bufferedCalls < config.getMinimumCalls() || !isOverThreshold()) {
+                    return;
+                }
+                to = State.OPEN;
+            }
+            transitionTo(to);
+        }
+        fireStateChange(from, to);
+    }
+
+    /**
+     * 调用被取消时只归还许可, 不记录调用结果
+     * @param permission {@link #acquirePermission()}返回的许可
+     */
+    public void releasePermission(final long permission) {
+        if (bulkhead != null) {
+            bulkhead.release();
+        }
+        releaseHalfOpenPermit(permission);
+    }
+
+    /**
+     * 添加状态变化监听
+     * @param listener 监听
+     */
+    public void addStateListener(final StateListener listener) {
+        listeners.add(listener);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * 当前窗口失败率(百分比), 调用数不足时返回-1
+     * @return 失败率
+     */
+    public synchronized float getFailureRate() {
+        return bufferedCalls < minimumCallsForState() ? -1 : (float) failedCalls * PERCENT / bufferedCalls;
+    }
+
+    /**
+     * 当前窗口慢调用率(百分比), 调用数不足时返回-1
+     * @return 慢调用率
+     */
+    public synchronized float getSlowCallRate() {
+        return bufferedCalls < minimumCallsForState() ? -1 : (float) slowCalls * PERCENT / bufferedCalls;
+    }
+
+    public synchronized int getBufferedCalls() {
+        return bufferedCalls;
+    }
+
+    /**
+     * 舱壁剩余可用并发数, 不限制时返回-1
+     * @return 剩余可用并发数
+     */
+    public int getAvailableConcurrentCalls() {
+        return bulkhead == null ? -1 : bulkhead.availablePermits();
+    }
+
+    public long getSuccessfulCallCount() {
+        return successfulCallCount.sum();
+    }
+
+    public long getFailedCallCount() {
+        return failedCallCount.sum();
+    }
+
+    public long getSlowCallCount() {
+        return slowCallCount.sum();
+    }
+
+    public long getNotPermittedCallCount() {
+        return notPermittedCallCount.sum();
+    }
+
+    public long getBulkheadRejectedCount() {
+        return bulkheadRejectedCount.sum();
+    }
+
+    /**
+     * 获取熔断许可
+     * @return 获取时的状态代数, 不允许调用时返回-1
+     */
+    private long tryAcquireCircuitPermission() {
+        // 先读代数再读状态, 读到CLOSED时代数不会是之后半开状态的代数
+        long current = generation;
+        if (state == State.CLOSED) {
+            return current;
+        }
+        boolean toHalfOpen = false;
+        long permission;
+        synchronized (this) {
+            if (state == State.CLOSED) {
+                return generation;
+            }
+            if (state == State.OPEN) {
+                if (System.currentTimeMillis() - openedAt < config.getWaitDurationInOpen()) {
+                    return -1L;
+                }
+                transitionTo(State.HALF_OPEN);
+                toHalfOpen = true;
+            }
+            if (halfOpenPermits <= 0) {
+                return -1L;
+            }
+            halfOpenPermits--;
+            permission = generation;
+        }
+        if (toHalfOpen) {
+            fireStateChange(State.OPEN, State.HALF_OPEN);
+        }
+        return permission;
+    }
+
+    private boolean tryAcquireBulkhead() {
+        if (config.getMaxWaitDuration() <= 0) {
+            return bulkhead.tryAcquire();
+        }
+        try {
+            return bulkhead.tryAcquire(config.getMaxWaitDuration(), TimeUnit.MILLISECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 只归还本次半开状态获取的探测许可
+     * @param permission 许可
+     */
+    private synchronized void releaseHalfOpenPermit(final long permission) {
+        if (state == State.HALF_OPEN && permission == generation) {
+            halfOpenPermits++;
+        }
+    }
+
+    private void record(final byte outcome) {
+        int windowLength = state == State.HALF_OPEN ? halfOpenWindowSize() : window.length;
+        if (bufferedCalls == windowLength) {
+            byte evicted = window[windowIndex];
+            failedCalls -= evicted & OUTCOME_FAILED;
+            slowCalls -= (evicted & OUTCOME_SLOW) >> 1;
+        } else {
+            bufferedCalls++;
+        }
+        window[windowIndex] = outcome;
+        failedCalls += outcome & OUTCOME_FAILED;
+        slowCalls += (outcome & OUTCOME_SLOW) >> 1;
+        windowIndex = (windowIndex + 1) % windowLength;
+    }
+
+    private boolean isOverThreshold() {
+        return failedCalls * PERCENT >= config.getFailureRateThreshold() * bufferedCalls
+                || slowCalls * PERCENT >= config.getSlowCallRateThreshold() * bufferedCalls;
+    }
+
+    private int minimumCallsForState() {
+        return state == State.HALF_OPEN ? halfOpenWindowSize() : config.getMinimumCalls();
+    }
+
+    private int halfOpenWindowSize() {
+        return Math.max(1, Math.min(window.length, config.getHalfOpenCalls()));
+    }
+
+    private void transitionTo(final State to) {
+        state = to;
+        generation++;
+        windowIndex = 0;
+        bufferedCalls = 0;
+        failedCalls = 0;
+        slowCalls = 0;
+        if (to == State.OPEN) {
+            openedAt = System.currentTimeMillis();
+        } else if (to == State.HALF_OPEN) {
+            halfOpenPermits = config.getHalfOpenCalls();
+        }
+    }
+
+    private void fireStateChange(final State from, final State to) {
+        log.warn("circuit breaker [{}] state changed from {} to {}", name, from, to);
+        for (StateListener listener : listeners) {
+            try {
+                listener.onStateChange(this, from, to);
+            } catch (final Exception e) {
+                log.error("circuit breaker [{}] listener error:{}", name, e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.common.http;
+
+import lombok.Data;
+import net.lcyframework.kernel.core.config.BaseProperties;
+
+/**
+ * <pre>
+ * 名称: CircuitBreakerConfig
+ * 描述: 熔断和舱壁配置
+ * 配置项:
+ *   httpclient.circuit.enabled                 是否开启熔断, 默认false
+ *   httpclient.circuit.windowSize              滑动窗口大小(最近调用次数), 默认100
+ *   httpclient.circuit.minimumCalls            计算失败率的最少调用次数, 默认20
+ *   httpclient.circuit.failureRateThreshold    失败率阈值(百分比), 默认50
+ *   httpclient.circuit.slowCallRateThreshold   慢调用率阈值(百分比), 默认80
+ *   httpclient.circuit.slowCallDuration        慢调用时间(毫秒), 默认3000
+ *   httpclient.circuit.waitDurationInOpen      熔断打开后多久进入半开(毫秒), 默认10000
+ *   httpclient.circuit.halfOpenCalls           半开状态允许的探测次数, 默认5
+ *   httpclient.circuit.maxConcurrentCalls      单host最大并发调用数, 默认100, 小于等于0不限制
+ *   httpclient.circuit.maxWaitDuration         并发已满时等待时间(毫秒), 默认0立即失败
+ * </pre>
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+@Data
+public class CircuitBreakerConfig {
+
+    private static final String PREFIX = "httpclient.circuit.";
+
+    private boolean enabled = false;
+
+    private int windowSize = 100;
+
+    private int minimumCalls = 20;
+
+    private int failureRateThreshold = 50;
+
+    private int slowCallRateThreshold = 80;
+
+    private long slowCallDuration = 3000L;
+
+    private long waitDurationInOpen = 10000L;
+
+    private int halfOpenCalls = 5;
+
+    private int maxConcurrentCalls = 100;
+
+    private long maxWaitDuration = 0L;
+
+    /**
+     * 从BaseProperties读取配置
+     * @return CircuitBreakerConfig
+     */
+    public static CircuitBreakerConfig fromProperties() {
+        CircuitBreakerConfig config = new CircuitBreakerConfig();
+        config.setEnabled(BaseProperties.getProperty(PREFIX + "enabled", Boolean.class, config.isEnabled()));
+        config.setWindowSize(BaseProperties.getProperty(PREFIX + "windowSize", Integer.class, config.getWindowSize()));
+        config.setMinimumCalls(BaseProperties.getProperty(PREFIX + "minimumCalls", Integer.class, config.getMinimumCalls()));
+        config.setFailureRateThreshold(BaseProperties.getProperty(PREFIX + "failureRateThreshold", Integer.class,
+                config.getFailureRateThreshold()));
+        config.setSlowCallRateThreshold(BaseProperties.getProperty(PREFIX + "slowCallRateThreshold", Integer.class,
+                config.getSlowCallRateThreshold()));
+        config.setSlowCallDuration(BaseProperties.getProperty(PREFIX + "slowCallDuration", Long.class,
+                config.getSlowCallDuration()));
+        config.setWaitDurationInOpen(BaseProperties.getProperty(PREFIX + "waitDurationInOpen", Long.class,
+                config.getWaitDurationInOpen()));
+        config.setHalfOpenCalls(BaseProperties.getProperty(PREFIX + "halfOpenCalls", Integer.class, config.getHalfOpenCalls()));
+        config.setMaxConcurrentCalls(BaseProperties.getProperty(PREFIX + "maxConcurrentCalls", Integer.class,
+                config.getMaxConcurrentCalls()));
+        config.setMaxWaitDuration(BaseProperties.getProperty(PREFIX + "maxWaitDuration", Long.class,
+                config.getMaxWaitDuration()));
+        return config;
+    }
+}
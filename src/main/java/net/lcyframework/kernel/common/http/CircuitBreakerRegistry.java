@@ -0,0 +1,105 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.common.http;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.http.HttpHost;
+import org.apache.http.client.utils.URIUtils;
+
+/**
+ * <pre>
+ * 名称: CircuitBreakerRegistry
+ * 描述: 按host(scheme://host:port)维护熔断器, 配置见{@link CircuitBreakerConfig}
+ * </pre>
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+public final class CircuitBreakerRegistry {
+
+    private static final CircuitBreakerConfig CONFIG = CircuitBreakerConfig.fromProperties();
+
+    private static final Map<String, CircuitBreaker> CIRCUIT_BREAKERS = new ConcurrentHashMap<String, CircuitBreaker>();
+
+    private static final List<CircuitBreaker.StateListener> LISTENERS = new CopyOnWriteArrayList<CircuitBreaker.StateListener>();
+
+    private CircuitBreakerRegistry() { }
+
+    /**
+     * 熔断是否开启
+     * @return boolean
+     */
+    public static boolean isEnabled() {
+        return CONFIG.isEnabled();
+    }
+
+    /**
+     * 获取请求地址对应host的熔断器, 未开启熔断时返回null
+     * @param uri 请求地址
+     * @return 熔断器
+     */
+    public static CircuitBreaker get(final URI uri) {
+        if (!CONFIG.isEnabled()) {
+            return null;
+        }
+        HttpHost host = URIUtils.extractHost(uri);
+        return host == null ? null : get(host.toURI());
+    }
+
+    /**
+     * 获取熔断器, 不存在时创建
+     * @param name 名称
+     * @return 熔断器
+     */
+    public static CircuitBreaker get(final String name) {
+        CircuitBreaker circuitBreaker = CIRCUIT_BREAKERS.get(name);
+        if (circuitBreaker != null) {
+            return circuitBreaker;
+        }
+        return CIRCUIT_BREAKERS.computeIfAbsent(name, key -> {
+            CircuitBreaker created = new CircuitBreaker(key, CONFIG);
+            for (CircuitBreaker.StateListener listener : LISTENERS) {
+                created.addStateListener(listener);
+            }
+            return created;
+        });
+    }
+
+    /**
+     * 添加状态变化监听, 对已有和之后创建的熔断器均生效
+     * @param listener 监听
+     */
+    public static void addStateListener(final CircuitBreaker.StateListener listener) {
+        LISTENERS.add(listener);
+        for (CircuitBreaker circuitBreaker : CIRCUIT_BREAKERS.values()) {
+            circuitBreaker.addStateListener(listener);
+        }
+    }
+
+    /**
+     * 所有熔断器, 用于监控
+     * @return key为host
+     */
+    public static Map<String, CircuitBreaker> getAll() {
+        return Collections.unmodifiableMap(CIRCUIT_BREAKERS);
+    }
+}
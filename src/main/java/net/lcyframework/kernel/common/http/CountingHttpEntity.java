@@ -0,0 +1,105 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.common.http;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.HttpEntityWrapper;
+
+/**
+ * <pre>
+ * 名称: CountingHttpEntity
+ * 描述: 统计实际读取或写出字节数的实体包装, 长度未知(chunked)或压缩时也能得到传输的字节数
+ * 计数不做同步, 一个实体只应在一个线程中读写
+ * </pre>
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+public class CountingHttpEntity extends HttpEntityWrapper {
+
+    private long count;
+
+    /**
+     * 构造方法
+     * @param wrappedEntity 被包装的实体
+     */
+    public CountingHttpEntity(final HttpEntity wrappedEntity) {
+        super(wrappedEntity);
+    }
+
+    /**
+     * 已读取或写出的字节数
+     * @return 字节数
+     */
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+        return new FilterInputStream(wrappedEntity.getContent()) {
+
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) {
+                    count++;
+                }
+                return b;
+            }
+
+            @Override
+            public int read(final byte[] b, final int off, final int len) throws IOException {
+                int n = super.read(b, off, len);
+                if (n > 0) {
+                    count += n;
+                }
+                return n;
+            }
+
+            @Override
+            public long skip(final long n) throws IOException {
+                long skipped = super.skip(n);
+                count += skipped;
+                return skipped;
+            }
+        };
+    }
+
+    @Override
+    public void writeTo(final OutputStream outStream) throws IOException {
+        wrappedEntity.writeTo(new FilterOutputStream(outStream) {
+
+            @Override
+            public void write(final int b) throws IOException {
+                out.write(b);
+                count++;
+            }
+
+            @Override
+            public void write(final byte[] b, final int off, final int len) throws IOException {
+                out.write(b, off, len);
+                count += len;
+            }
+        });
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.common.http;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.client.entity.GzipCompressingEntity;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * <pre>
+ * 名称: GzipRequestInterceptor
+ * 描述: 请求体大于阈值时使用gzip压缩
+ * 压缩在写出请求体时边读边写, 不会在内存中额外缓存压缩后的内容, 压缩后长度未知, 使用chunked传输,
+ * 因此需要注册在RequestContent之前, 由其根据压缩后的实体设置Transfer-Encoding和Content-Encoding.
+ * 已设置Content-Encoding或长度未知(流式)的请求体不压缩, 需要下游服务支持Content-Encoding: gzip的请求
+ * </pre>
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+public class GzipRequestInterceptor implements HttpRequestInterceptor {
+
+    private final long threshold;
+
+    /**
+     * 构造方法
+     * @param threshold 压缩阈值(字节), 小于0时不压缩
+     */
+    public GzipRequestInterceptor(final long threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void process(final HttpRequest request, final HttpContext context) {
+        if (threshold < 0 || !(request instanceof HttpEntityEnclosingRequest)
+                || request.containsHeader(HttpHeaders.CONTENT_ENCODING)) {
+            return;
+        }
+        HttpEntityEnclosingRequest entityRequest = (HttpEntityEnclosingRequest) request;
+        HttpEntity entity = entityRequest.getEntity();
+        if (entity == null || entity.getContentEncoding() != null || entity.getContentLength() < threshold) {
+            return;
+        }
+        // 拦截器作用于每次执行时的请求副本, 重试时不会重复压缩
+        entityRequest.setEntity(new GzipCompressingEntity(entity));
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.common.http;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.http.HttpHost;
+import org.apache.http.client.utils.URIUtils;
+
+import net.lcyframework.kernel.core.metrics.LatencyHistogram;
+
+/**
+ * <pre>
+ * 名称: HostLatencyTracker
+ * 描述: 按host统计最近一段时间的请求耗时(毫秒), 用于计算对冲延迟
+ * 每个host保留当前和上一个统计周期两个直方图, 周期结束时滚动, 百分位取自上一个完整周期
+ * </pre>
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+public final class HostLatencyTracker {
+
+    private static final long ROLL_INTERVAL_MILLIS = 60 * 1000L;
+
+    private static final long MIN_SAMPLES = 20L;
+
+    private static final Map<String, RollingHistogram> HISTOGRAMS = new ConcurrentHashMap<String, RollingHistogram>();
+
+    private HostLatencyTracker() { }
+
+    /**
+     * 记录一次请求耗时
+     * @param uri 请求地址
+     * @param millis 耗时(毫秒)
+     */
+    public static void record(final URI uri, final long millis) {
+        String host = hostOf(uri);
+        if (host != null) {
+            HISTOGRAMS.computeIfAbsent(host, key -> new RollingHistogram()).record(millis);
+        }
+    }
+
+    /**
+     * 获取host最近耗时的百分位值
+     * @param uri 请求地址
+     * @param percentile 百分位
+     * @return 耗时(毫秒), 样本不足时返回-1
+     */
+    public static long getValueAtPercentile(final URI uri, final double percentile) {
+        String host = hostOf(uri);
+        RollingHistogram histogram = host == null ? null : HISTOGRAMS.get(host);
+        return histogram == null ? -1L : histogram.getValueAtPercentile(percentile);
+    }
+
+    private static String hostOf(final URI uri) {
+        HttpHost host = URIUtils.extractHost(uri);
+        return host == null ? null : host.toURI();
+    }
+
+    /**
+     * 两个周期滚动的直方图
+     */
+    private static final class RollingHistogram {
+
+        private volatile LatencyHistogram current = new LatencyHistogram();
+
+        private volatile LatencyHistogram previous = new LatencyHistogram();
+
+        private volatile long rollAt = System.currentTimeMillis() + ROLL_INTERVAL_MILLIS;
+
+        void record(final long millis) {
+            rollIfNecessary();
+            current.record(millis);
+        }
+
+        long getValueAtPercentile(final double percentile) {
+            rollIfNecessary();
+            LatencyHistogram histogram = previous.getCount() >= MIN_SAMPLES ? previous : current;
+            return histogram.getCount() >= MIN_SAMPLES ? histogram.getValueAtPercentile(percentile) : -1L;
+        }
+
+        private void rollIfNecessary() {
+            long now = System.currentTimeMillis();
+            if (now < rollAt) {
+                return;
+            }
+            synchronized (this) {
+                if (now < rollAt) {
+                    return;
+                }
+                LatencyHistogram recycled = previous;
+                recycled.reset();
+                previous = current;
+                current = recycled;
+                rollAt = now + ROLL_INTERVAL_MILLIS;
+            }
+        }
+    }
+}
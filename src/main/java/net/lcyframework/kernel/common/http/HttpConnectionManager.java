@@ -0,0 +1,249 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.common.http;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.client.protocol.RequestAcceptEncoding;
+import org.apache.http.client.protocol.ResponseContentEncoding;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.DefaultHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.conn.util.PublicSuffixMatcherLoader;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.ssl.SSLContexts;
+
+import lombok.extern.slf4j.Slf4j;
+import net.lcyframework.kernel.core.config.BaseProperties;
+import net.lcyframework.kernel.core.consts.SysErrorConsts;
+import net.lcyframework.kernel.core.exception.SysException;
+import net.lcyframework.kernel.core.threads.NamedThreadFactory;
+
+/**
+ * <pre>
+ * 名称: HttpConnectionManager
+ * 描述: HttpClient连接池管理, 全局共享一个长连接客户端
+ * 配置项:
+ *   httpclient.maxTotal                 连接池最大连接数, 默认200
+ *   httpclient.maxPerRoute              单路由(host:port)最大连接数, 默认50
+ *   httpclient.validateAfterInactivity  连接空闲多久后复用前校验(毫秒), 默认2000
+ *   httpclient.idleTimeout              空闲连接回收时间(毫秒), 默认30000
+ *   httpclient.timeToLive               连接最大存活时间(毫秒), 默认-1不限制
+ *   httpclient.async.ioThreads          异步客户端IO线程数, 默认CPU核数
+ *   httpclient.gzip.response            是否发送Accept-Encoding并解压gzip/deflate响应, 默认true
+ *   httpclient.gzip.requestThreshold    同步请求的请求体大于该值(字节)时gzip压缩, 默认-1不压缩
+ * </pre>
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+@Slf4j
+public final class HttpConnectionManager {
+
+    private static final int DEFAULT_MAX_TOTAL = 200;
+    private static final int DEFAULT_MAX_PER_ROUTE = 50;
+    private static final int DEFAULT_VALIDATE_AFTER_INACTIVITY = 2000;
+    private static final long DEFAULT_IDLE_TIMEOUT = 30000L;
+    private static final long DEFAULT_TIME_TO_LIVE = -1L;
+    private static final long DEFAULT_GZIP_REQUEST_THRESHOLD = -1L;
+
+    private static final boolean GZIP_RESPONSE = BaseProperties.getProperty("httpclient.gzip.response", Boolean.class,
+            true);
+
+    private static final GzipRequestInterceptor GZIP_REQUEST_INTERCEPTOR = new GzipRequestInterceptor(
+            BaseProperties.getProperty("httpclient.gzip.requestThreshold", Long.class, DEFAULT_GZIP_REQUEST_THRESHOLD));
+
+    private static final ResponseContentEncoding RESPONSE_CONTENT_ENCODING = new ResponseContentEncoding();
+
+    private static final PoolingHttpClientConnectionManager CONNECTION_MANAGER;
+
+    private static final CloseableHttpClient HTTP_CLIENT;
+
+    private HttpConnectionManager() { }
+
+    static {
+        Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", new SSLConnectionSocketFactory(SSLContexts.createDefault(),
+                        new DefaultHostnameVerifier(PublicSuffixMatcherLoader.getDefault())))
+                .build();
+        CONNECTION_MANAGER = new PoolingHttpClientConnectionManager(socketFactoryRegistry, null, null, null,
+                BaseProperties.getProperty("httpclient.timeToLive", Long.class, DEFAULT_TIME_TO_LIVE),
+                TimeUnit.MILLISECONDS);
+        CONNECTION_MANAGER.setMaxTotal(BaseProperties.getProperty("httpclient.maxTotal", Integer.class, DEFAULT_MAX_TOTAL));
+        CONNECTION_MANAGER.setDefaultMaxPerRoute(
+                BaseProperties.getProperty("httpclient.maxPerRoute", Integer.class, DEFAULT_MAX_PER_ROUTE));
+        CONNECTION_MANAGER.setValidateAfterInactivity(BaseProperties.getProperty("httpclient.validateAfterInactivity",
+                Integer.class, DEFAULT_VALIDATE_AFTER_INACTIVITY));
+
+        // 后台线程定期回收过期和空闲连接
+        long idleTimeout = BaseProperties.getProperty("httpclient.idleTimeout", Long.class, DEFAULT_IDLE_TIMEOUT);
+        HttpClientBuilder builder = HttpClients.custom()
+                .setConnectionManager(CONNECTION_MANAGER)
+                .evictExpiredConnections()
+                .evictIdleConnections(idleTimeout, TimeUnit.MILLISECONDS)
+                .addInterceptorFirst(GZIP_REQUEST_INTERCEPTOR);
+        if (HttpMetrics.isEnabled()) {
+            // 统计压缩后写出和解压前读取的字节数
+            builder.addInterceptorLast((HttpRequestInterceptor) HttpMetrics.getCountingInterceptor())
+                    .addInterceptorFirst((HttpResponseInterceptor) HttpMetrics.getCountingInterceptor());
+        }
+        // 同步客户端默认发送Accept-Encoding, 并在读取响应体时流式解压
+        if (!GZIP_RESPONSE) {
+            builder.disableContentCompression();
+        }
+        HTTP_CLIENT = builder.build();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(HttpConnectionManager::shutdown, "httpclient-shutdown"));
+    }
+
+    /**
+     * 获取共享的httpClient, 调用方不可关闭
+     * @return httpClient
+     */
+    public static CloseableHttpClient getHttpClient() {
+        return HTTP_CLIENT;
+    }
+
+    /**
+     * 获取共享的异步httpClient, 少量IO线程承载大量并发请求, 首次调用时创建, 调用方不可关闭
+     * @return httpAsyncClient
+     */
+    public static CloseableHttpAsyncClient getHttpAsyncClient() {
+        return AsyncClientHolder.HTTP_ASYNC_CLIENT;
+    }
+
+    /**
+     * 连接池整体统计(leased, pending, available, max)
+     * @return 连接池统计
+     */
+    public static PoolStats getTotalStats() {
+        return CONNECTION_MANAGER.getTotalStats();
+    }
+
+    /**
+     * 按路由统计连接池
+     * @return key为路由, value为该路由的连接统计
+     */
+    public static Map<String, PoolStats> getRouteStats() {
+        Map<String, PoolStats> routeStats = new LinkedHashMap<String, PoolStats>();
+        for (HttpRoute route : CONNECTION_MANAGER.getRoutes()) {
+            routeStats.put(route.getTargetHost().toURI(), CONNECTION_MANAGER.getStats(route));
+        }
+        return routeStats;
+    }
+
+    /**
+     * 按Content-Encoding解压异步客户端的响应体, 解压在读取响应体时流式进行
+     * 异步客户端的响应体在协议拦截器执行之后才生成, 无法像同步客户端一样由拦截器处理
+     * @param response 响应
+     * @throws IOException 不支持的Content-Encoding
+     */
+    public static void decodeContent(final HttpResponse response) throws IOException {
+        try {
+            RESPONSE_CONTENT_ENCODING.process(response, HttpClientContext.create());
+        } catch (final HttpException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 关闭连接池
+     */
+    public static void shutdown() {
+        try {
+            HTTP_CLIENT.close();
+        } catch (final IOException e) {
+            log.error("httpclient shutdown error:{}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 异步客户端延迟加载, 未使用异步接口时不启动IO线程
+     */
+    private static final class AsyncClientHolder {
+
+        private static final CloseableHttpAsyncClient HTTP_ASYNC_CLIENT;
+
+        static {
+            IOReactorConfig ioReactorConfig = IOReactorConfig.custom()
+                    .setIoThreadCount(BaseProperties.getProperty("httpclient.async.ioThreads", Integer.class,
+                            Runtime.getRuntime().availableProcessors()))
+                    .setSoKeepAlive(true)
+                    .build();
+            PoolingNHttpClientConnectionManager connectionManager;
+            try {
+                Registry<SchemeIOSessionStrategy> sessionStrategyRegistry = RegistryBuilder.<SchemeIOSessionStrategy>create()
+                        .register("http", NoopIOSessionStrategy.INSTANCE)
+                        .register("https", new SSLIOSessionStrategy(SSLContexts.createDefault(),
+                                new DefaultHostnameVerifier(PublicSuffixMatcherLoader.getDefault())))
+                        .build();
+                connectionManager = new PoolingNHttpClientConnectionManager(
+                        new DefaultConnectingIOReactor(ioReactorConfig, new NamedThreadFactory("httpclient-async-io", true)),
+                        sessionStrategyRegistry);
+            } catch (final IOReactorException e) {
+                throw new SysException(SysErrorConsts.SYS_ERROR_CODE, e.getMessage(), e);
+            }
+            connectionManager.setMaxTotal(BaseProperties.getProperty("httpclient.maxTotal", Integer.class, DEFAULT_MAX_TOTAL));
+            connectionManager.setDefaultMaxPerRoute(
+                    BaseProperties.getProperty("httpclient.maxPerRoute", Integer.class, DEFAULT_MAX_PER_ROUTE));
+
+            // GzipCompressingEntity只支持writeTo, 异步客户端通过getContent读取请求体, 因此不压缩请求体
+            HttpAsyncClientBuilder builder = HttpAsyncClients.custom().setConnectionManager(connectionManager);
+            // 异步客户端不自带压缩支持, 响应体在回调中解压, 见decodeContent
+            if (GZIP_RESPONSE) {
+                builder.addInterceptorLast(new RequestAcceptEncoding());
+            }
+            HTTP_ASYNC_CLIENT = builder.build();
+            HTTP_ASYNC_CLIENT.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    HTTP_ASYNC_CLIENT.close();
+                } catch (final IOException e) {
+                    log.error("httpclient async shutdown error:{}", e.getMessage(), e);
+                }
+            }, "httpclient-async-shutdown"));
+        }
+
+        private AsyncClientHolder() { }
+    }
+}
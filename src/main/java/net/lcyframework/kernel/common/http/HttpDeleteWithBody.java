@@ -0,0 +1,57 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.common.http;
+
+import java.net.URI;
+
+import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
+
+/**
+ * <pre>
+ * 名称: HttpDeleteWithBody
+ * 描述: 带请求体的DELETE请求, HttpDelete不支持请求体
+ * </pre>
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+public class HttpDeleteWithBody extends HttpEntityEnclosingRequestBase {
+
+    /** 请求方法 */
+    public static final String METHOD_NAME = "DELETE";
+
+    /**
+     * 构造方法
+     * @param uri 地址
+     */
+    public HttpDeleteWithBody(final URI uri) {
+        super();
+        setURI(uri);
+    }
+
+    /**
+     * 构造方法
+     * @param uri 地址
+     */
+    public HttpDeleteWithBody(final String uri) {
+        this(URI.create(uri));
+    }
+
+    @Override
+    public String getMethod() {
+        return METHOD_NAME;
+    }
+}
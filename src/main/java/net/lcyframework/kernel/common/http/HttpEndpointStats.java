@@ -0,0 +1,61 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.common.http;
+
+import lombok.Data;
+
+/**
+ * <pre>
+ * 名称: HttpEndpointStats
+ * 描述: 单个接口(host + 路径模板)的统计快照, 耗时单位为毫秒
+ * </pre>
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+@Data
+public class HttpEndpointStats {
+
+    /** host + 路径模板, 如http://127.0.0.1:8080/user/{id} */
+    private String endpoint;
+
+    private long requestCount;
+
+    /** 异常或5xx的次数 */
+    private long errorCount;
+
+    /** 连接、等待连接或读取超时的次数 */
+    private long timeoutCount;
+
+    /** 被调用方取消的次数(如对冲落败), 不计入requestCount */
+    private long cancelledCount;
+
+    /** 写出的请求体字节数 */
+    private long bytesOut;
+
+    /** 读取的响应体字节数(解压前) */
+    private long bytesIn;
+
+    private double meanMillis;
+
+    private double p50Millis;
+
+    private double p99Millis;
+
+    private double p999Millis;
+
+    private double maxMillis;
+}
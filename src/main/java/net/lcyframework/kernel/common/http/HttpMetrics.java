@@ -0,0 +1,364 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.common.http;
+
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.client.utils.URIUtils;
+import org.apache.http.protocol.HttpContext;
+
+import net.lcyframework.kernel.core.config.BaseProperties;
+import net.lcyframework.kernel.core.metrics.JmxRegistrar;
+import net.lcyframework.kernel.core.metrics.LatencyHistogram;
+
+/**
+ * <pre>
+ * 名称: HttpMetrics
+ * 描述: 按接口(host + 路径模板)统计出站HTTP请求的耗时分布、错误数、超时数和传输字节数
+ * 记录只有LongAdder累加和直方图的一次CAS, 无锁, 可以常开; 通过{@link #getEndpointStats()}拉取或JMX查看.
+ * 路径模板将纯数字、UUID、十六进制等标识段替换为{id}, 如/user/123/orders变为/user/{id}/orders,
+ * 接口数超过上限后新接口合并到host/{other}, 避免路径中含未识别的变量时无限增长.
+ * 配置项:
+ *   httpclient.metrics.enabled        是否开启统计, 默认true
+ *   httpclient.metrics.maxEndpoints   最多统计的接口数, 默认1000
+ * </pre>
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+public final class HttpMetrics {
+
+    private static final String REQUEST_ENTITY = HttpMetrics.class.getName() + ".requestEntity";
+    private static final String RESPONSE_ENTITY = HttpMetrics.class.getName() + ".responseEntity";
+
+    private static final String ID_SEGMENT = "{id}";
+    private static final String OTHER_PATH = "/{other}";
+    private static final int MIN_HEX_ID_LENGTH = 8;
+    private static final int SERVER_ERROR = 500;
+    private static final double P50 = 50D;
+    private static final double P99 = 99D;
+    private static final double P999 = 99.9D;
+    private static final double MICROS_PER_MILLI = 1000D;
+
+    private static final boolean ENABLED = BaseProperties.getProperty("httpclient.metrics.enabled", Boolean.class, true);
+
+    private static final int MAX_ENDPOINTS = BaseProperties.getProperty("httpclient.metrics.maxEndpoints", Integer.class,
+            1000);
+
+    private static final ConcurrentMap<String, EndpointMetrics> ENDPOINTS = new ConcurrentHashMap<String, EndpointMetrics>();
+
+    /** 统计请求体和响应体字节数, 请求拦截器需最后注册(压缩之后), 响应拦截器需最先注册(解压之前) */
+    private static final CountingInterceptor COUNTING_INTERCEPTOR = new CountingInterceptor();
+
+    static {
+        if (ENABLED) {
+            JmxRegistrar.register("HttpClientMetrics", null, new HttpMetricsMXBean() {
+
+                @Override
+                public List<HttpEndpointStats> getEndpointStats() {
+                    return HttpMetrics.getEndpointStats();
+                }
+
+                @Override
+                public int getEndpointCount() {
+                    return ENDPOINTS.size();
+                }
+
+                @Override
+                public void reset() {
+                    HttpMetrics.reset();
+                }
+            });
+        }
+    }
+
+    private HttpMetrics() { }
+
+    /**
+     * 是否开启统计
+     * @return boolean
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * 统计传输字节数的拦截器
+     * @return 拦截器
+     */
+    public static CountingInterceptor getCountingInterceptor() {
+        return COUNTING_INTERCEPTOR;
+    }
+
+    /**
+     * 记录一次请求
+     * @param uri 请求地址
+     * @param statusCode 响应状态码, 未收到响应时为0
+     * @param failure 异常, 成功时为null
+     * @param nanos 耗时(纳秒)
+     * @param bytesOut 请求体字节数
+     * @param bytesIn 响应体字节数
+     */
+    public static void record(final URI uri, final int statusCode, final Throwable failure, final long nanos,
+            final long bytesOut, final long bytesIn) {
+        if (!ENABLED) {
+            return;
+        }
+        EndpointMetrics metrics = endpoint(uri);
+        if (metrics != null) {
+            metrics.record(statusCode, failure, nanos, bytesOut, bytesIn);
+        }
+    }
+
+    /**
+     * 记录一次被调用方取消的请求(如对冲落败), 不计入请求数和耗时分布
+     * @param uri 请求地址
+     */
+    public static void recordCancelled(final URI uri) {
+        if (!ENABLED) {
+            return;
+        }
+        EndpointMetrics metrics = endpoint(uri);
+        if (metrics != null) {
+            metrics.cancelledCount.increment();
+        }
+    }
+
+    /**
+     * 请求执行后从上下文中读取写出的请求体字节数
+     * @param context 请求上下文
+     * @return 字节数
+     */
+    public static long getBytesOut(final HttpContext context) {
+        Object entity = context.getAttribute(REQUEST_ENTITY);
+        return entity instanceof CountingHttpEntity ? ((CountingHttpEntity) entity).getCount() : 0L;
+    }
+
+    /**
+     * 请求执行后从上下文中读取已读取的响应体字节数
+     * @param context 请求上下文
+     * @return 字节数
+     */
+    public static long getBytesIn(final HttpContext context) {
+        Object entity = context.getAttribute(RESPONSE_ENTITY);
+        return entity instanceof CountingHttpEntity ? ((CountingHttpEntity) entity).getCount() : 0L;
+    }
+
+    /**
+     * 所有接口的统计快照
+     * @return 统计快照
+     */
+    public static List<HttpEndpointStats> getEndpointStats() {
+        List<HttpEndpointStats> stats = new ArrayList<HttpEndpointStats>(ENDPOINTS.size());
+        for (EndpointMetrics metrics : ENDPOINTS.values()) {
+            stats.add(metrics.snapshot());
+        }
+        return stats;
+    }
+
+    /**
+     * 单个接口的统计快照
+     * @param uri 请求地址
+     * @return 统计快照, 未请求过时为null
+     */
+    public static HttpEndpointStats getEndpointStats(final URI uri) {
+        String key = endpointKey(uri);
+        EndpointMetrics metrics = key == null ? null : ENDPOINTS.get(key);
+        return metrics == null ? null : metrics.snapshot();
+    }
+
+    /**
+     * 清空统计
+     */
+    public static void reset() {
+        ENDPOINTS.clear();
+    }
+
+    /**
+     * 路径模板, 标识段替换为{id}
+     * @param path 路径
+     * @return 路径模板
+     */
+    public static String pathTemplate(final String path) {
+        if (path == null || path.isEmpty()) {
+            return "/";
+        }
+        StringBuilder sb = new StringBuilder(path.length());
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty()) {
+                sb.append('/').append(isIdentifier(segment) ? ID_SEGMENT : segment);
+            }
+        }
+        return sb.length() == 0 ? "/" : sb.toString();
+    }
+
+    private static EndpointMetrics endpoint(final URI uri) {
+        String key = endpointKey(uri);
+        if (key == null) {
+            return null;
+        }
+        EndpointMetrics metrics = ENDPOINTS.get(key);
+        if (metrics != null) {
+            return metrics;
+        }
+        if (ENDPOINTS.size() >= MAX_ENDPOINTS) {
+            key = URIUtils.extractHost(uri).toURI() + OTHER_PATH;
+        }
+        return ENDPOINTS.computeIfAbsent(key, EndpointMetrics::new);
+    }
+
+    private static String endpointKey(final URI uri) {
+        HttpHost host = URIUtils.extractHost(uri);
+        return host == null ? null : host.toURI() + pathTemplate(uri.getRawPath());
+    }
+
+    private static boolean isIdentifier(final String segment) {
+        boolean hasDigit = false;
+        boolean hex = true;
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            if (c >= '0' && c <= '9') {
+                hasDigit = true;
+            } else if (!(c >= 'a' && c <= 'f' || c >= 'A' && c <= 'F' || c == '-')) {
+                hex = false;
+            }
+        }
+        // 纯数字, 或含数字的UUID/哈希等较长十六进制串
+        return hasDigit && hex && (segment.length() >= MIN_HEX_ID_LENGTH || isDigits(segment));
+    }
+
+    private static boolean isDigits(final String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            if (segment.charAt(i) < '0' || segment.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isTimeout(final Throwable failure) {
+        // SocketTimeoutException, ConnectTimeoutException, ConnectionPoolTimeoutException
+        for (Throwable t = failure; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof InterruptedIOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 单个接口的统计
+     */
+    private static final class EndpointMetrics {
+
+        private final String endpoint;
+
+        /** 耗时(微秒) */
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        private final LongAdder errorCount = new LongAdder();
+
+        private final LongAdder timeoutCount = new LongAdder();
+
+        private final LongAdder cancelledCount = new LongAdder();
+
+        private final LongAdder bytesOut = new LongAdder();
+
+        private final LongAdder bytesIn = new LongAdder();
+
+        EndpointMetrics(final String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        void record(final int statusCode, final Throwable failure, final long nanos, final long out, final long in) {
+            latency.record(TimeUnit.NANOSECONDS.toMicros(nanos));
+            if (failure != null || statusCode >= SERVER_ERROR) {
+                errorCount.increment();
+            }
+            if (failure != null && isTimeout(failure)) {
+                timeoutCount.increment();
+            }
+            if (out > 0) {
+                bytesOut.add(out);
+            }
+            if (in > 0) {
+                bytesIn.add(in);
+            }
+        }
+
+        HttpEndpointStats snapshot() {
+            HttpEndpointStats stats = new HttpEndpointStats();
+            stats.setEndpoint(endpoint);
+            stats.setRequestCount(latency.getCount());
+            stats.setErrorCount(errorCount.sum());
+            stats.setTimeoutCount(timeoutCount.sum());
+            stats.setCancelledCount(cancelledCount.sum());
+            stats.setBytesOut(bytesOut.sum());
+            stats.setBytesIn(bytesIn.sum());
+            stats.setMeanMillis(latency.getMean() / MICROS_PER_MILLI);
+            stats.setP50Millis(latency.getValueAtPercentile(P50) / MICROS_PER_MILLI);
+            stats.setP99Millis(latency.getValueAtPercentile(P99) / MICROS_PER_MILLI);
+            stats.setP999Millis(latency.getValueAtPercentile(P999) / MICROS_PER_MILLI);
+            stats.setMaxMillis(latency.getMax() / MICROS_PER_MILLI);
+            return stats;
+        }
+    }
+
+    /**
+     * 将请求体和响应体包装为{@link CountingHttpEntity}并放入请求上下文
+     */
+    public static final class CountingInterceptor implements HttpRequestInterceptor, HttpResponseInterceptor {
+
+        private CountingInterceptor() { }
+
+        @Override
+        public void process(final HttpRequest request, final HttpContext context) {
+            if (request instanceof HttpEntityEnclosingRequest) {
+                HttpEntityEnclosingRequest entityRequest = (HttpEntityEnclosingRequest) request;
+                HttpEntity entity = entityRequest.getEntity();
+                if (entity != null) {
+                    CountingHttpEntity countingEntity = new CountingHttpEntity(entity);
+                    entityRequest.setEntity(countingEntity);
+                    context.setAttribute(REQUEST_ENTITY, countingEntity);
+                }
+            }
+        }
+
+        @Override
+        public void process(final HttpResponse response, final HttpContext context) {
+            HttpEntity entity = response.getEntity();
+            if (entity != null) {
+                CountingHttpEntity countingEntity = new CountingHttpEntity(entity);
+                response.setEntity(countingEntity);
+                context.setAttribute(RESPONSE_ENTITY, countingEntity);
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.common.http;
+
+import java.util.List;
+
+/**
+ * <pre>
+ * 名称: HttpMetricsMXBean
+ * 描述: 出站HTTP请求统计的JMX接口, ObjectName为net.lcyframework:type=HttpClientMetrics
+ * </pre>
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+public interface HttpMetricsMXBean {
+
+    /**
+     * 所有接口的统计快照
+     * @return 统计快照
+     */
+    List<HttpEndpointStats> getEndpointStats();
+
+    /**
+     * 接口数量
+     * @return 数量
+     */
+    int getEndpointCount();
+
+    /**
+     * 清空统计
+     */
+    void reset();
+}
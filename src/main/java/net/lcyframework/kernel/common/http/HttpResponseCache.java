@@ -0,0 +1,316 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.common.http;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.http.Header;
+import org.apache.http.HeaderElement;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+
+import net.lcyframework.kernel.core.config.BaseProperties;
+
+/**
+ * <pre>
+ * 名称: HttpResponseCache
+ * 描述: 进程内GET响应缓存
+ * 按Cache-Control: max-age判断新鲜度, 过期后携带If-None-Match/If-Modified-Since重新验证,
+ * 304时直接复用缓存的响应体, 不再传输和解析响应体; no-store、private和带Vary的响应不缓存, no-cache的响应每次都重新验证.
+ * 缓存按响应体大小计算占用, 超过上限时按LRU淘汰
+ * 配置项:
+ *   httpclient.cache.maxBytes    缓存响应体总大小上限(字节), 默认33554432(32MB)
+ * </pre>
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+public final class HttpResponseCache {
+
+    private static final long DEFAULT_MAX_BYTES = 32L * 1024 * 1024;
+    private static final int ENTRY_OVERHEAD_BYTES = 64;
+    private static final long MILLIS_PER_SECOND = 1000L;
+
+    private static final long MAX_BYTES = BaseProperties.getProperty("httpclient.cache.maxBytes", Long.class,
+            DEFAULT_MAX_BYTES);
+
+    /** 按访问顺序排列, 由CACHE自身同步 */
+    private static final LinkedHashMap<String, CachedResponse> CACHE = new LinkedHashMap<String, CachedResponse>(
+            16, 0.75F, true);
+
+    private static long totalBytes;
+
+    private static final LongAdder HIT_COUNT = new LongAdder();
+    private static final LongAdder MISS_COUNT = new LongAdder();
+    private static final LongAdder REVALIDATION_COUNT = new LongAdder();
+
+    private HttpResponseCache() { }
+
+    /**
+     * 获取缓存的响应, 可能已过期
+     * @param key key
+     * @return 缓存的响应, 不存在时为null
+     */
+    public static CachedResponse get(final String key) {
+        synchronized (CACHE) {
+            return CACHE.get(key);
+        }
+    }
+
+    /**
+     * 缓存响应, 不可缓存的响应会移除旧的缓存
+     * @param key key
+     * @param response 响应
+     * @param body 响应体
+     */
+    public static void put(final String key, final HttpResponse response, final String body) {
+        CachedResponse cachedResponse = CachedResponse.from(response, body);
+        if (cachedResponse == null) {
+            invalidate(key);
+        } else {
+            store(key, cachedResponse);
+        }
+    }
+
+    /**
+     * 304后合并响应头并刷新过期时间(RFC 7234 4.3.4)
+     * 304中出现的Cache-Control、ETag、Last-Modified覆盖缓存中的值, 未出现的保留缓存中的值, 再按合并后的结果计算过期时间
+     * @param key key
+     * @param cachedResponse 缓存的响应
+     * @param response 304响应
+     * @return 刷新后的缓存响应
+     */
+    public static CachedResponse revalidated(final String key, final CachedResponse cachedResponse,
+            final HttpResponse response) {
+        REVALIDATION_COUNT.increment();
+        CachedResponse refreshed = CachedResponse.merge(cachedResponse, response);
+        if (refreshed == null) {
+            invalidate(key);
+            return cachedResponse;
+        }
+        store(key, refreshed);
+        return refreshed;
+    }
+
+    /**
+     * 记录命中
+     */
+    public static void recordHit() {
+        HIT_COUNT.increment();
+    }
+
+    /**
+     * 记录未命中(包括过期后需要重新请求)
+     */
+    public static void recordMiss() {
+        MISS_COUNT.increment();
+    }
+
+    public static long getHitCount() {
+        return HIT_COUNT.sum();
+    }
+
+    public static long getMissCount() {
+        return MISS_COUNT.sum();
+    }
+
+    /**
+     * 304重新验证成功次数
+     * @return 次数
+     */
+    public static long getRevalidationCount() {
+        return REVALIDATION_COUNT.sum();
+    }
+
+    /**
+     * 缓存条目数
+     * @return 条目数
+     */
+    public static int size() {
+        synchronized (CACHE) {
+            return CACHE.size();
+        }
+    }
+
+    /**
+     * 缓存占用的字节数(估算)
+     * @return 字节数
+     */
+    public static long getTotalBytes() {
+        synchronized (CACHE) {
+            return totalBytes;
+        }
+    }
+
+    /**
+     * 移除缓存
+     * @param key key
+     */
+    public static void invalidate(final String key) {
+        synchronized (CACHE) {
+            CachedResponse removed = CACHE.remove(key);
+            if (removed != null) {
+                totalBytes -= weigh(key, removed);
+            }
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public static void invalidateAll() {
+        synchronized (CACHE) {
+            CACHE.clear();
+            totalBytes = 0;
+        }
+    }
+
+    private static void store(final String key, final CachedResponse cachedResponse) {
+        long weight = weigh(key, cachedResponse);
+        synchronized (CACHE) {
+            CachedResponse replaced = CACHE.put(key, cachedResponse);
+            totalBytes += weight - (replaced == null ? 0 : weigh(key, replaced));
+            Iterator<Map.Entry<String, CachedResponse>> iterator = CACHE.entrySet().iterator();
+            while (totalBytes > MAX_BYTES && iterator.hasNext()) {
+                Map.Entry<String, CachedResponse> eldest = iterator.next();
+                totalBytes -= weigh(eldest.getKey(), eldest.getValue());
+                iterator.remove();
+            }
+        }
+    }
+
+    private static long weigh(final String key, final CachedResponse cachedResponse) {
+        return key.length() * 2L + cachedResponse.getBody().length() * 2L + ENTRY_OVERHEAD_BYTES;
+    }
+
+    /**
+     * 缓存的响应
+     */
+    public static final class CachedResponse {
+
+        private final String body;
+
+        private final String etag;
+
+        private final String lastModified;
+
+        /** max-age(秒), 未指定时为-1 */
+        private final long maxAge;
+
+        private final boolean noCache;
+
+        private final long expiresAt;
+
+        CachedResponse(final String body, final String etag, final String lastModified, final long maxAge,
+                final boolean noCache) {
+            this.body = body;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.maxAge = maxAge;
+            this.noCache = noCache;
+            this.expiresAt = noCache || maxAge <= 0 ? System.currentTimeMillis()
+                    : System.currentTimeMillis() + maxAge * MILLIS_PER_SECOND;
+        }
+
+        /**
+         * 根据响应头生成缓存响应
+         * @param response 响应
+         * @param body 响应体
+         * @return 不可缓存时返回null
+         */
+        static CachedResponse from(final HttpResponse response, final String body) {
+            if (body == null) {
+                return null;
+            }
+            return merge(new CachedResponse(body, null, null, -1L, false), response);
+        }
+
+        /**
+         * 用响应中出现的头覆盖缓存的值, 未出现的保留缓存的值
+         * 缓存不按Vary列出的请求头区分, 带Vary的响应视为不可缓存
+         * @param cached 缓存的响应
+         * @param response 响应
+         * @return 不可缓存时返回null
+         */
+        static CachedResponse merge(final CachedResponse cached, final HttpResponse response) {
+            if (response.containsHeader(HttpHeaders.VARY)) {
+                return null;
+            }
+            long maxAge = cached.maxAge;
+            boolean noCache = cached.noCache;
+            Header[] cacheControls = response.getHeaders(HttpHeaders.CACHE_CONTROL);
+            if (cacheControls.length > 0) {
+                maxAge = -1L;
+                noCache = false;
+            }
+            for (Header header : cacheControls) {
+                for (HeaderElement element : header.getElements()) {
+                    String name = element.getName().toLowerCase();
+                    if ("no-store".equals(name) || "private".equals(name)) {
+                        return null;
+                    } else if ("no-cache".equals(name)) {
+                        noCache = true;
+                    } else if ("max-age".equals(name) && element.getValue() != null) {
+                        try {
+                            maxAge = Long.parseLong(element.getValue().trim());
+                        } catch (final NumberFormatException e) {
+                            maxAge = -1L;
+                        }
+                    }
+                }
+            }
+            String etag = headerValue(response, HttpHeaders.ETAG, cached.etag);
+            String lastModified = headerValue(response, HttpHeaders.LAST_MODIFIED, cached.lastModified);
+            boolean validatable = etag != null || lastModified != null;
+            if ((maxAge <= 0 || noCache) && !validatable) {
+                return null;
+            }
+            return new CachedResponse(cached.body, etag, lastModified, maxAge, noCache);
+        }
+
+        private static String headerValue(final HttpResponse response, final String name, final String defaultValue) {
+            Header header = response.getFirstHeader(name);
+            return header == null ? defaultValue : header.getValue();
+        }
+
+        /**
+         * 是否仍然新鲜, 新鲜时无需请求
+         * @return boolean
+         */
+        public boolean isFresh() {
+            return System.currentTimeMillis() < expiresAt;
+        }
+
+        public String getBody() {
+            return body;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.common.http;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.http.HttpRequest;
+
+import lombok.Data;
+import net.lcyframework.kernel.core.config.BaseProperties;
+
+/**
+ * <pre>
+ * 名称: HttpRetryPolicy
+ * 描述: 幂等请求(GET/HEAD/OPTIONS/PUT/DELETE)的重试和对冲策略
+ * 重试: 连接异常、超时或指定状态码时按指数退避加全抖动重试, 同时受{@link RetryBudget}限制
+ * 对冲: 首个请求超过hedgeDelay(默认取该host最近耗时p95)未返回时再发一个请求, 取先返回的结果
+ * 配置项:
+ *   httpclient.retry.maxAttempts      最大尝试次数(含首次), 默认1不重试
+ *   httpclient.retry.initialBackoff   首次重试退避上限(毫秒), 默认100
+ *   httpclient.retry.maxBackoff       退避上限(毫秒), 默认2000
+ *   httpclient.retry.statusCodes      需要重试的响应状态码, 默认502,503,504
+ *   httpclient.hedge.delay            对冲延迟(毫秒), 默认-1按p95自适应
+ *   httpclient.hedge.minDelay         自适应对冲延迟的下限(毫秒), 默认10
+ * </pre>
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+@Data
+public class HttpRetryPolicy {
+
+    private static final Set<String> IDEMPOTENT_METHODS = new HashSet<String>(
+            Arrays.asList("GET", "HEAD", "OPTIONS", "PUT", "DELETE"));
+
+    private static final double BACKOFF_MULTIPLIER = 2D;
+
+    private static final HttpRetryPolicy DEFAULT_POLICY = fromProperties();
+
+    private int maxAttempts = 1;
+
+    private long initialBackoff = 100L;
+
+    private long maxBackoff = 2000L;
+
+    private Set<Integer> retryStatusCodes = new HashSet<Integer>(Arrays.asList(502, 503, 504));
+
+    private long hedgeDelay = -1L;
+
+    private long hedgeMinDelay = 10L;
+
+    /**
+     * 默认策略, 由BaseProperties配置
+     * @return HttpRetryPolicy
+     */
+    public static HttpRetryPolicy getDefault() {
+        return DEFAULT_POLICY;
+    }
+
+    /**
+     * 从BaseProperties读取配置
+     * @return HttpRetryPolicy
+     */
+    public static HttpRetryPolicy fromProperties() {
+        HttpRetryPolicy policy = new HttpRetryPolicy();
+        policy.setMaxAttempts(BaseProperties.getProperty("httpclient.retry.maxAttempts", Integer.class,
+                policy.getMaxAttempts()));
+        policy.setInitialBackoff(BaseProperties.getProperty("httpclient.retry.initialBackoff", Long.class,
+                policy.getInitialBackoff()));
+        policy.setMaxBackoff(BaseProperties.getProperty("httpclient.retry.maxBackoff", Long.class, policy.getMaxBackoff()));
+        String statusCodes = BaseProperties.getString("httpclient.retry.statusCodes");
+        if (statusCodes != null) {
+            Set<Integer> codes = new HashSet<Integer>();
+            for (String code : statusCodes.split(",")) {
+                if (!code.trim().isEmpty()) {
+                    codes.add(Integer.valueOf(code.trim()));
+                }
+            }
+            policy.setRetryStatusCodes(codes);
+        }
+        policy.setHedgeDelay(BaseProperties.getProperty("httpclient.hedge.delay", Long.class, policy.getHedgeDelay()));
+        policy.setHedgeMinDelay(BaseProperties.getProperty("httpclient.hedge.minDelay", Long.class,
+                policy.getHedgeMinDelay()));
+        return policy;
+    }
+
+    /**
+     * 请求是否幂等, 只有幂等请求才会重试和对冲
+     * @param request 请求
+     * @return boolean
+     */
+    public boolean isIdempotent(final HttpRequest request) {
+        return IDEMPOTENT_METHODS.contains(request.getRequestLine().getMethod());
+    }
+
+    /**
+     * 请求是否需要按策略重试
+     * @param request 请求
+     * @return boolean
+     */
+    public boolean isRetryable(final HttpRequest request) {
+        return maxAttempts > 1 && isIdempotent(request);
+    }
+
+    /**
+     * 响应状态码是否需要重试
+     * @param statusCode 状态码
+     * @return boolean
+     */
+    public boolean isRetryableStatus(final int statusCode) {
+        return retryStatusCodes != null && retryStatusCodes.contains(statusCode);
+    }
+
+    /**
+     * 第attempt次重试前的退避时间, 指数退避加全抖动: random(0, min(maxBackoff, initialBackoff * 2^(attempt-1)))
+     * @param attempt 第几次重试, 从1开始
+     * @return 退避时间(毫秒)
+     */
+    public long computeBackoff(final int attempt) {
+        double ceiling = Math.min(maxBackoff, initialBackoff * Math.pow(BACKOFF_MULTIPLIER, attempt - 1));
+        return ceiling <= 0 ? 0L : ThreadLocalRandom.current().nextLong((long) ceiling + 1);
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.common.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * <pre>
+ * 名称: InputStreamHandler
+ * 描述: 响应流处理接口, 直接消费响应实体流, 不在内存中构造完整的响应字符串
+ * </pre>
+ * @param <T> 处理结果类型
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+@FunctionalInterface
+public interface InputStreamHandler<T> {
+
+    /**
+     * 处理响应流, 方法返回后流由调用方关闭并归还连接
+     * @param inputStream 响应实体流, 无响应体时为null
+     * @return T
+     * @throws IOException IO异常
+     */
+    T handle(InputStream inputStream) throws IOException;
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.common.http;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import net.lcyframework.kernel.core.config.BaseProperties;
+
+/**
+ * <pre>
+ * 名称: RetryBudget
+ * 描述: 重试预算, 限制重试和对冲请求带来的额外负载
+ * 每个原始请求存入ratio个令牌, 每次重试或对冲消耗1个令牌, 令牌不足时放弃重试,
+ * 下游整体故障时重试量被限制在原始请求量的ratio倍以内, 避免重试风暴
+ * 配置项:
+ *   httpclient.retry.budgetRatio        额外请求占原始请求的比例, 默认0.1
+ *   httpclient.retry.budgetMinRetries   初始令牌数, 默认10, 令牌上限为其10倍
+ * </pre>
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+public class RetryBudget {
+
+    private static final long SCALE = 1000L;
+
+    private static final RetryBudget DEFAULT_BUDGET = new RetryBudget(
+            BaseProperties.getProperty("httpclient.retry.budgetRatio", Double.class, 0.1D),
+            BaseProperties.getProperty("httpclient.retry.budgetMinRetries", Integer.class, 10));
+
+    private final long depositAmount;
+
+    private final long maxBalance;
+
+    private final AtomicLong balance;
+
+    private final LongAdder exhaustedCount = new LongAdder();
+
+    /**
+     * 构造方法
+     * @param ratio 额外请求占原始请求的比例
+     * @param minRetries 初始令牌数, 令牌上限为其10倍
+     */
+    public RetryBudget(final double ratio, final int minRetries) {
+        this.depositAmount = (long) (ratio * SCALE);
+        this.maxBalance = Math.max(minRetries, 1) * SCALE * 10;
+        this.balance = new AtomicLong(Math.max(minRetries, 0) * SCALE);
+    }
+
+    /**
+     * 全局默认预算
+     * @return RetryBudget
+     */
+    public static RetryBudget getDefault() {
+        return DEFAULT_BUDGET;
+    }
+
+    /**
+     * 记录一次原始请求, 存入令牌
+     */
+    public void deposit() {
+        long current;
+        do {
+            current = balance.get();
+            if (current >= maxBalance) {
+                return;
+            }
+        } while (!balance.compareAndSet(current, Math.min(maxBalance, current + depositAmount)));
+    }
+
+    /**
+     * 尝试消耗一个令牌
+     * @return 是否允许重试
+     */
+    public boolean tryWithdraw() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < SCALE) {
+                exhaustedCount.increment();
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - SCALE));
+        return true;
+    }
+
+    /**
+     * 当前可用的重试次数
+     * @return 可用次数
+     */
+    public long getAvailableRetries() {
+        return balance.get() / SCALE;
+    }
+
+    /**
+     * 因预算不足放弃重试的次数
+     * @return 次数
+     */
+    public long getExhaustedCount() {
+        return exhaustedCount.sum();
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.common.http;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+import net.lcyframework.kernel.core.consts.SysErrorConsts;
+import net.lcyframework.kernel.core.exception.SysException;
+
+/**
+ * <pre>
+ * 名称: SingleFlight
+ * 描述: 合并相同key的并发调用
+ * 同一时刻相同key只有第一个调用方真正执行, 其余调用方等待并共享同一个结果或同一个异常,
+ * 执行结束后立即移除, 不做缓存
+ * </pre>
+ * @param <K> key类型
+ * @param <V> 结果类型
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<K, CompletableFuture<V>>();
+
+    private final LongAdder executedCount = new LongAdder();
+
+    private final LongAdder sharedCount = new LongAdder();
+
+    /**
+     * 执行调用, 相同key已有调用在执行时等待其结果
+     * @param key key
+     * @param callable 实际调用
+     * @return 结果
+     */
+    public V execute(final K key, final Callable<V> callable) {
+        CompletableFuture<V> created = new CompletableFuture<V>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            sharedCount.increment();
+            return await(existing);
+        }
+        executedCount.increment();
+        try {
+            V value = callable.call();
+            created.complete(value);
+            return value;
+        } catch (final RuntimeException e) {
+            created.completeExceptionally(e);
+            throw e;
+        } catch (final Exception e) {
+            SysException ex = new SysException(SysErrorConsts.SYS_ERROR_CODE, e.getMessage(), e);
+            created.completeExceptionally(ex);
+            throw ex;
+        } catch (final Error e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    /**
+     * 当前正在执行的key数量
+     * @return 数量
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * 实际执行次数
+     * @return 次数
+     */
+    public long getExecutedCount() {
+        return executedCount.sum();
+    }
+
+    /**
+     * 共享其他调用结果的次数
+     * @return 次数
+     */
+    public long getSharedCount() {
+        return sharedCount.sum();
+    }
+
+    private V await(final CompletableFuture<V> future) {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SysException(SysErrorConsts.SYS_ERROR_CODE, e.getMessage(), e);
+        } catch (final ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new SysException(SysErrorConsts.SYS_ERROR_CODE, cause.getMessage(), cause);
+        }
+    }
+}
@@ -16,45 +16,79 @@
 
 package net.lcyframework.kernel.common.util;
 
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.TypeReference;
+
 import lombok.extern.slf4j.Slf4j;
+import net.lcyframework.kernel.common.http.CircuitBreaker;
+import net.lcyframework.kernel.common.http.CircuitBreakerRegistry;
+import net.lcyframework.kernel.common.http.HostLatencyTracker;
+import net.lcyframework.kernel.common.http.HttpConnectionManager;
+import net.lcyframework.kernel.common.http.HttpDeleteWithBody;
+import net.lcyframework.kernel.common.http.HttpMetrics;
+import net.lcyframework.kernel.common.http.HttpResponseCache;
+import net.lcyframework.kernel.common.http.HttpRetryPolicy;
+import net.lcyframework.kernel.common.http.InputStreamHandler;
+import net.lcyframework.kernel.common.http.RetryBudget;
+import net.lcyframework.kernel.common.http.SingleFlight;
 import net.lcyframework.kernel.core.config.BaseProperties;
 import net.lcyframework.kernel.core.consts.SysErrorConsts;
 import net.lcyframework.kernel.core.consts.SysRestConsts;
 import net.lcyframework.kernel.core.exception.SysException;
+import net.lcyframework.kernel.core.threads.NamedThreadFactory;
 
+import org.apache.http.Consts;
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpMessage;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
 import org.apache.http.NameValuePair;
+import org.apache.http.client.ResponseHandler;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
-import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpDelete;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpPut;
 import org.apache.http.client.methods.HttpRequestBase;
-import org.apache.http.conn.ssl.DefaultHostnameVerifier;
-import org.apache.http.conn.util.PublicSuffixMatcher;
-import org.apache.http.conn.util.PublicSuffixMatcherLoader;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
 import org.apache.http.message.BasicHeader;
 import org.apache.http.message.BasicNameValuePair;
 import org.apache.http.util.EntityUtils;
 import org.slf4j.MDC;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
-import org.springframework.web.client.RestTemplate;
 
 import java.io.IOException;
-import java.net.URL;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.IntPredicate;
 
 /**
  * <pre>
@@ -72,10 +106,39 @@ public final class HttpClientUtil {
     private static final String USER_AGENT = "user_agent";
     private static final String HJ_IBJ = "hj_ibj";
 
+    private static final long TRANSFER_CHUNK_SIZE = 1024 * 1024;
+    private static final double HEDGE_PERCENTILE = 95D;
+
+    private static final ResponseHandler<String> STRING_RESPONSE_HANDLER = response -> {
+        HttpEntity entity = response.getEntity();
+        return entity == null ? null : EntityUtils.toString(entity, STR_ENCODE);
+    };
+
+    /** 是否按请求打印耗时日志, 关闭后耗时统计见HttpMetrics */
+    private static final boolean ACCESS_LOG = BaseProperties.getProperty("httpclient.accessLog", Boolean.class, true);
+
+    private static final boolean COALESCE_ENABLED = BaseProperties.getProperty("httpclient.coalesce.enabled",
+            Boolean.class, false);
+
+    private static final Set<String> COALESCE_HEADERS = new HashSet<String>();
+
+    private static final SingleFlight<String, String> GET_SINGLE_FLIGHT = new SingleFlight<String, String>();
+
+    /** 缓存请求单独合并, 否则与同key的普通合并请求互相共享结果, 绕过或污染缓存 */
+    private static final SingleFlight<String, String> CACHED_GET_SINGLE_FLIGHT = new SingleFlight<String, String>();
+
     private static RequestConfig REQUEST_CONFIG;
 
     private HttpClientUtil() { }
     static {
+        String coalesceHeaders = BaseProperties.getString("httpclient.coalesce.headers");
+        if (coalesceHeaders != null) {
+            for (String name : coalesceHeaders.split(",")) {
+                if (!name.trim().isEmpty()) {
+                    COALESCE_HEADERS.add(name.trim().toLowerCase());
+                }
+            }
+        }
         if (REQUEST_CONFIG == null) {
             REQUEST_CONFIG = RequestConfig.custom()
             .setSocketTimeout(BaseProperties.getProperty("httpclient.socketTimeout", Integer.class, SysRestConsts.HTTP_TIMEOUT))
@@ -259,17 +322,18 @@ public final class HttpClientUtil {
      * @return string 响应字符串
      */
     public static String sendHttpDelete(final String httpUrl, final String params, final Header... headers) {
-        HttpHeaders httpHeaders = new HttpHeaders();
-        if (EmptyUtils.isNotEmpty(headers)) {
-            httpHeaders.add(SysRestConsts.REQUEST_ID, MDC.get(SysRestConsts.REQUEST_ID));
-            httpHeaders.add("Content-Type", MediaType.APPLICATION_JSON_VALUE);
-            for (Header header : headers) {
-                httpHeaders.add(header.getName(), header.getValue());
-            }
+        // 与其他请求共用连接池, 超时配置和统计
+        HttpDeleteWithBody httpDelete = new HttpDeleteWithBody(httpUrl);
+        // 参数为null时不带请求体
+        if (params != null) {
+            StringEntity stringEntity = new StringEntity(params, STR_ENCODE);
+            stringEntity.setContentType("application/json");
+            httpDelete.setEntity(stringEntity);
+        }
+        if (headers != null) {
+            httpDelete.setHeaders(headers);
         }
-        org.springframework.http.HttpEntity<String> httpEntity = new org.springframework.http.HttpEntity<String>(params, httpHeaders);
-        ResponseEntity<String> responseEntity = new RestTemplate().exchange(httpUrl, HttpMethod.DELETE, httpEntity, String.class);
-        return responseEntity.getBody();
+        return sendHttpRequest(httpDelete);
     }
 
     /**
@@ -302,6 +366,9 @@ public final class HttpClientUtil {
      * @return string 响应字符串
      */
     public static String sendHttpGet(final String httpUrl) {
+        if (COALESCE_ENABLED) {
+            return sendHttpGetCoalesced(httpUrl);
+        }
         // 创建get请求
         HttpGet httpGet = new HttpGet(httpUrl);
         return sendHttpGet(httpGet);
@@ -314,6 +381,9 @@ public final class HttpClientUtil {
      * @return string 响应字符串
      */
     public static String sendHttpGet(final String httpUrl, final Header... header) {
+        if (COALESCE_ENABLED) {
+            return sendHttpGetCoalesced(httpUrl, header);
+        }
         // 创建get请求
         HttpGet httpGet = new HttpGet(httpUrl);
         if (header != null) {
@@ -322,6 +392,84 @@ public final class HttpClientUtil {
         return sendHttpGet(httpGet);
     }
 
+    /**
+     * 发送合并的 get请求, 地址和请求头相同的并发请求只发送一次, 所有调用方共享同一个结果或异常
+     * 参与合并判断的请求头由httpclient.coalesce.headers配置(逗号分隔), 未配置时为全部请求头
+     * @param httpUrl 地址
+     * @param header 请求头
+     * @return string 响应字符串
+     */
+    public static String sendHttpGetCoalesced(final String httpUrl, final Header... header) {
+        return GET_SINGLE_FLIGHT.execute(coalesceKey(httpUrl, header), () -> {
+            HttpGet httpGet = new HttpGet(httpUrl);
+            if (header != null) {
+                httpGet.setHeaders(header);
+            }
+            return sendHttpGet(httpGet);
+        });
+    }
+
+    /**
+     * 发送带缓存的 get请求, 适用于配置、字典等很少变化的接口
+     * 按响应的Cache-Control: max-age缓存, 过期后通过ETag/Last-Modified重新验证, 304时直接返回缓存的响应体
+     * 缓存按地址和全部请求头区分, 不受httpclient.coalesce.headers影响, 不同凭证(如Authorization)不共享缓存;
+     * 带Vary或Cache-Control: private/no-store的响应不缓存
+     * 过期或未命中时相同请求会合并为一次
+     * @param httpUrl 地址
+     * @param header 请求头
+     * @return string 响应字符串
+     */
+    public static String sendHttpGetCached(final String httpUrl, final Header... header) {
+        String key = cacheKey(httpUrl, header);
+        HttpResponseCache.CachedResponse cached = HttpResponseCache.get(key);
+        if (cached != null && cached.isFresh()) {
+            HttpResponseCache.recordHit();
+            return cached.getBody();
+        }
+        HttpResponseCache.recordMiss();
+        return CACHED_GET_SINGLE_FLIGHT.execute(key, () -> {
+            HttpGet httpGet = new HttpGet(httpUrl);
+            if (header != null) {
+                httpGet.setHeaders(header);
+            }
+            HttpResponseCache.CachedResponse stale = HttpResponseCache.get(key);
+            if (stale != null && stale.getEtag() != null) {
+                httpGet.setHeader(HttpHeaders.IF_NONE_MATCH, stale.getEtag());
+            }
+            if (stale != null && stale.getLastModified() != null) {
+                httpGet.setHeader(HttpHeaders.IF_MODIFIED_SINCE, stale.getLastModified());
+            }
+            return sendHttpRequest(httpGet, response -> {
+                int statusCode = response.getStatusLine().getStatusCode();
+                if (stale != null && statusCode == HttpStatus.SC_NOT_MODIFIED) {
+                    EntityUtils.consume(response.getEntity());
+                    return HttpResponseCache.revalidated(key, stale, response).getBody();
+                }
+                String content = STRING_RESPONSE_HANDLER.handleResponse(response);
+                if (statusCode == HttpStatus.SC_OK) {
+                    HttpResponseCache.put(key, response, content);
+                }
+                return content;
+            });
+        });
+    }
+
+    /**
+     * 合并请求统计
+     * @return singleFlight
+     */
+    public static SingleFlight<String, String> getCoalescedGets() {
+        return GET_SINGLE_FLIGHT;
+    }
+
+    /**
+     * 缓存请求的合并统计
+     * @return singleFlight
+     */
+    public static SingleFlight<String, String> getCachedGets() {
+        return CACHED_GET_SINGLE_FLIGHT;
+    }
+
     /**
      * 发送 get请求Https
      * @param httpUrl 地址
@@ -353,82 +501,604 @@ public final class HttpClientUtil {
      * @return string 响应字符串
      */
     private static String sendHttpsGet(final HttpGet httpGet) {
-        CloseableHttpClient httpClient = null;
-        CloseableHttpResponse response = null;
-        HttpEntity entity = null;
-        String responseContent = null;
-        try {
-            // 创建默认的httpClient实例.
-            PublicSuffixMatcher publicSuffixMatcher = PublicSuffixMatcherLoader.load(new URL(httpGet.getURI().toString()));
-            DefaultHostnameVerifier hostnameVerifier = new DefaultHostnameVerifier(publicSuffixMatcher);
-            httpClient = HttpClients.custom().setSSLHostnameVerifier(hostnameVerifier).build();
-            httpGet.setConfig(REQUEST_CONFIG);
-            //在http header中存入requestId
-            setRequestId(httpGet);
-            // 执行请求
-            response = httpClient.execute(httpGet);
-            entity = response.getEntity();
-            responseContent = EntityUtils.toString(entity, STR_ENCODE);
-        } catch (final Exception e) {
-            throw new SysException(SysErrorConsts.SYS_ERROR_CODE, e.getMessage(), e);
-        } finally {
+        return sendHttpRequest(httpGet);
+    }
+
+    /**
+     * 发送请求
+     * @param httpRequestBase the httpRequestBase
+     * @return string 响应字符串
+     */
+    public static String sendHttpRequest(final HttpRequestBase httpRequestBase) {
+        return sendHttpRequest(httpRequestBase, STRING_RESPONSE_HANDLER);
+    }
+
+    /**
+     * 发送请求, 由responseHandler直接处理响应, 处理完成后连接归还连接池
+     * 幂等请求按默认重试策略重试, 见{@link HttpRetryPolicy}
+     * @param httpRequestBase the httpRequestBase
+     * @param responseHandler 响应处理
+     * @param <T> 返回类型
+     * @return T 处理结果
+     */
+    public static <T> T sendHttpRequest(final HttpRequestBase httpRequestBase,
+            final ResponseHandler<? extends T> responseHandler) {
+        return sendHttpRequest(httpRequestBase, responseHandler, HttpRetryPolicy.getDefault());
+    }
+
+    /**
+     * 发送请求, 幂等请求在连接异常、超时或指定状态码时按重试策略退避重试, 重试次数受全局重试预算限制
+     * 只重试调用responseHandler之前的失败, 重试的状态码在调用前判断并丢弃响应体, responseHandler只处理最终响应
+     * @param httpRequestBase the httpRequestBase
+     * @param responseHandler 响应处理
+     * @param retryPolicy 重试策略
+     * @param <T> 返回类型
+     * @return T 处理结果
+     */
+    public static <T> T sendHttpRequest(final HttpRequestBase httpRequestBase,
+            final ResponseHandler<? extends T> responseHandler, final HttpRetryPolicy retryPolicy) {
+        if (!retryPolicy.isRetryable(httpRequestBase)) {
+            return execute(httpRequestBase, responseHandler, new Attempt(), null);
+        }
+        RetryBudget retryBudget = RetryBudget.getDefault();
+        retryBudget.deposit();
+        for (int attempt = 1;; attempt++) {
+            boolean lastAttempt = attempt >= retryPolicy.getMaxAttempts();
+            Attempt state = new Attempt();
+            T result;
             try {
-                // 关闭连接,释放资源
-                HttpClientUtil.closeResources(response, httpClient);
-            } catch (final IOException e) {
-                throw new SysException(SysErrorConsts.SYS_ERROR_CODE, e.getMessage(), e);
+                result = execute(httpRequestBase, responseHandler, state, lastAttempt ? null
+                        : statusCode -> retryPolicy.isRetryableStatus(statusCode) && retryBudget.tryWithdraw());
+            } catch (final SysException e) {
+                // 只重试收到响应前的传输层异常, 熔断等快速失败和responseHandler中的异常不重试
+                if (state.handled || !(e.getCause() instanceof IOException) || lastAttempt
+                        || !retryBudget.tryWithdraw()) {
+                    throw e;
+                }
+                backoff(httpRequestBase, retryPolicy, attempt, e.getMessage());
+                continue;
             }
+            if (!state.retryStatus) {
+                return result;
+            }
+            backoff(httpRequestBase, retryPolicy, attempt, "status " + state.statusCode);
         }
-        return responseContent;
     }
 
     /**
-     * 发送Get请求Https
+     * 发送请求, 由inputStreamHandler直接消费响应流
      * @param httpRequestBase the httpRequestBase
-     * @return string 响应字符串
+     * @param inputStreamHandler 响应流处理
+     * @param <T> 返回类型
+     * @return T 处理结果
      */
-    public static String sendHttpRequest(final HttpRequestBase httpRequestBase) {
-        CloseableHttpClient httpClient = null;
-        CloseableHttpResponse response = null;
-        HttpEntity entity = null;
-        String responseContent = null;
+    public static <T> T sendHttpRequestStream(final HttpRequestBase httpRequestBase,
+            final InputStreamHandler<? extends T> inputStreamHandler) {
+        return sendHttpRequest(httpRequestBase, (ResponseHandler<T>) response -> {
+            HttpEntity entity = response.getEntity();
+            if (entity == null) {
+                return inputStreamHandler.handle(null);
+            }
+            try (InputStream inputStream = entity.getContent()) {
+                return inputStreamHandler.handle(inputStream);
+            }
+        });
+    }
+
+    /**
+     * 发送 get请求, 响应json直接从响应流解析为对象
+     * @param httpUrl 地址
+     * @param clazz 响应类型
+     * @param header 请求头
+     * @param <T> 响应类型
+     * @return T 响应对象
+     */
+    public static <T> T sendHttpGet(final String httpUrl, final Class<T> clazz, final Header... header) {
+        return sendHttpGet(httpUrl, (Type) clazz, header);
+    }
+
+    /**
+     * 发送 get请求, 响应json直接从响应流解析为对象
+     * @param httpUrl 地址
+     * @param reference 响应类型
+     * @param header 请求头
+     * @param <T> 响应类型
+     * @return T 响应对象
+     */
+    public static <T> T sendHttpGet(final String httpUrl, final TypeReference<T> reference, final Header... header) {
+        return sendHttpGet(httpUrl, reference.getType(), header);
+    }
+
+    /**
+     * 发送 post请求, 响应json直接从响应流解析为对象
+     * @param httpUrl 地址
+     * @param params 参数(json)
+     * @param clazz 响应类型
+     * @param header 请求头
+     * @param <T> 响应类型
+     * @return T 响应对象
+     */
+    public static <T> T sendHttpPost(final String httpUrl, final String params, final Class<T> clazz,
+            final Header... header) {
+        HttpPost httpPost = new HttpPost(httpUrl);
+        StringEntity stringEntity = new StringEntity(params, STR_ENCODE);
+        stringEntity.setContentType("application/json");
+        httpPost.setEntity(stringEntity);
+        if (header != null) {
+            httpPost.setHeaders(header);
+        }
+        return sendHttpRequest(httpPost, jsonResponseHandler(clazz));
+    }
+
+    /**
+     * 下载文件, 响应流通过FileChannel直接写入目标文件
+     * 非2xx响应抛出异常, 不打开目标文件
+     * @param httpUrl 地址
+     * @param target 目标文件
+     * @param header 请求头
+     * @return 写入的字节数
+     */
+    public static long downloadToFile(final String httpUrl, final Path target, final Header... header) {
+        HttpGet httpGet = new HttpGet(httpUrl);
+        if (header != null) {
+            httpGet.setHeaders(header);
+        }
+        return sendHttpRequest(httpGet, (ResponseHandler<Long>) response -> {
+            checkSuccessStatus(response);
+            HttpEntity entity = response.getEntity();
+            try (FileChannel fileChannel = FileChannel.open(target, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                if (entity == null) {
+                    return 0L;
+                }
+                try (InputStream inputStream = entity.getContent()) {
+                    ReadableByteChannel source = Channels.newChannel(inputStream);
+                    long position = 0;
+                    long transferred;
+                    while ((transferred = fileChannel.transferFrom(source, position, TRANSFER_CHUNK_SIZE)) > 0) {
+                        position += transferred;
+                    }
+                    return position;
+                }
+            }
+        });
+    }
+
+    private static <T> T sendHttpGet(final String httpUrl, final Type type, final Header... header) {
+        HttpGet httpGet = new HttpGet(httpUrl);
+        if (header != null) {
+            httpGet.setHeaders(header);
+        }
+        return sendHttpRequest(httpGet, jsonResponseHandler(type));
+    }
+
+    private static <T> ResponseHandler<T> jsonResponseHandler(final Type type) {
+        return response -> {
+            // 错误页不按响应类型解析
+            checkSuccessStatus(response);
+            HttpEntity entity = response.getEntity();
+            if (entity == null) {
+                return null;
+            }
+            ContentType contentType = ContentType.get(entity);
+            Charset charset = contentType == null || contentType.getCharset() == null ? Consts.UTF_8
+                    : contentType.getCharset();
+            try (InputStream inputStream = entity.getContent()) {
+                return JSON.parseObject(inputStream, charset, type);
+            }
+        };
+    }
+
+    /**
+     * 异步发送 get请求
+     * @param httpUrl 地址
+     * @param header 请求头
+     * @return 响应字符串的future
+     */
+    public static CompletableFuture<String> sendHttpGetAsync(final String httpUrl, final Header... header) {
+        HttpGet httpGet = new HttpGet(httpUrl);
+        if (header != null) {
+            httpGet.setHeaders(header);
+        }
+        return sendHttpRequestAsync(httpGet);
+    }
+
+    /**
+     * 异步发送 get请求, 响应json转为对象
+     * @param httpUrl 地址
+     * @param clazz 响应类型
+     * @param header 请求头
+     * @param <T> 响应类型
+     * @return 响应对象的future
+     */
+    public static <T> CompletableFuture<T> sendHttpGetAsync(final String httpUrl, final Class<T> clazz,
+            final Header... header) {
+        return sendHttpGetAsync(httpUrl, header).thenApply(content -> JsonUtil.json2Object(content, clazz));
+    }
+
+    /**
+     * 异步发送 post请求
+     * @param httpUrl 地址
+     * @param params 参数(json)
+     * @param header 请求头
+     * @return 响应字符串的future
+     */
+    public static CompletableFuture<String> sendHttpPostAsync(final String httpUrl, final String params,
+            final Header... header) {
+        HttpPost httpPost = new HttpPost(httpUrl);
+        StringEntity stringEntity = new StringEntity(params, STR_ENCODE);
+        stringEntity.setContentType("application/json");
+        httpPost.setEntity(stringEntity);
+        if (header != null) {
+            httpPost.setHeaders(header);
+        }
+        return sendHttpRequestAsync(httpPost);
+    }
+
+    /**
+     * 异步发送 post请求, 响应json转为对象
+     * @param httpUrl 地址
+     * @param params 参数(json)
+     * @param clazz 响应类型
+     * @param header 请求头
+     * @param <T> 响应类型
+     * @return 响应对象的future
+     */
+    public static <T> CompletableFuture<T> sendHttpPostAsync(final String httpUrl, final String params,
+            final Class<T> clazz, final Header... header) {
+        return sendHttpPostAsync(httpUrl, params, header).thenApply(content -> JsonUtil.json2Object(content, clazz));
+    }
+
+    /**
+     * 异步发送 post请求
+     * @param httpUrl 地址
+     * @param maps 参数
+     * @param header 请求头
+     * @return 响应字符串的future
+     */
+    public static CompletableFuture<String> sendHttpPostAsync(final String httpUrl, final Map<String, String> maps,
+            final Header... header) {
+        HttpPost httpPost = new HttpPost(httpUrl);
+        List<NameValuePair> nameValuePairs = new ArrayList<NameValuePair>();
+        for (Map.Entry<String, String> entry : maps.entrySet()) {
+            nameValuePairs.add(new BasicNameValuePair(entry.getKey(), entry.getValue()));
+        }
+        httpPost.setEntity(new UrlEncodedFormEntity(nameValuePairs, Consts.UTF_8));
+        if (header != null) {
+            httpPost.setHeaders(header);
+        }
+        return sendHttpRequestAsync(httpPost);
+    }
+
+    /**
+     * 异步发送请求, 调用线程不阻塞, 回调在IO线程中执行, 耗时的后续处理请使用thenApplyAsync等方法切换线程
+     * @param httpRequestBase the httpRequestBase
+     * @return 响应字符串的future
+     */
+    public static CompletableFuture<String> sendHttpRequestAsync(final HttpRequestBase httpRequestBase) {
+        CompletableFuture<String> future = new CompletableFuture<String>();
         long start = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
+        // 异步客户端的请求体由执行前创建的producer直接读取, 不经过拦截器, 字节数取请求体长度
+        HttpEntity requestEntity = httpRequestBase instanceof HttpEntityEnclosingRequest
+                ? ((HttpEntityEnclosingRequest) httpRequestBase).getEntity() : null;
+        long bytesOut = requestEntity == null ? 0L : Math.max(0L, requestEntity.getContentLength());
+        CircuitBreaker circuitBreaker = CircuitBreakerRegistry.get(httpRequestBase.getURI());
+        long permission;
         try {
-            // 创建默认的httpClient实例.
-            httpClient = HttpClients.createDefault();
+            permission = circuitBreaker == null ? 0L : circuitBreaker.acquirePermission();
+        } catch (final SysException e) {
+            future.completeExceptionally(e);
+            return future;
+        }
+        httpRequestBase.setConfig(REQUEST_CONFIG);
+        //在http header中存入requestId, 需在调用线程中读取MDC
+        setRequestId(httpRequestBase);
+        FutureCallback<HttpResponse> callback = new FutureCallback<HttpResponse>() {
+
+            @Override
+            public void completed(final HttpResponse response) {
+                int statusCode = response.getStatusLine().getStatusCode();
+                // 响应体已缓冲, 解压前的长度即读取的字节数
+                HttpEntity rawEntity = response.getEntity();
+                onDone(isSuccessStatus(statusCode), statusCode, null, rawEntity == null ? 0L : rawEntity.getContentLength());
+                try {
+                    HttpConnectionManager.decodeContent(response);
+                    HttpEntity entity = response.getEntity();
+                    future.complete(entity == null ? null : EntityUtils.toString(entity, STR_ENCODE));
+                } catch (final Exception e) {
+                    future.completeExceptionally(new SysException(SysErrorConsts.SYS_ERROR_CODE, e.getMessage(), e));
+                }
+                if (ACCESS_LOG) {
+                    log.info("httpclient async [{}], cost time [{}] ms )", httpRequestBase.getURI().toString(),
+                            System.currentTimeMillis() - start);
+                }
+            }
+
+            @Override
+            public void failed(final Exception e) {
+                onDone(false, 0, e, 0L);
+                future.completeExceptionally(new SysException(SysErrorConsts.SYS_ERROR_CODE, e.getMessage(), e));
+            }
+
+            @Override
+            public void cancelled() {
+                // 调用方主动取消(如对冲落败), 不计入耗时分布和熔断统计, 单独计数
+                HttpMetrics.recordCancelled(httpRequestBase.getURI());
+                if (circuitBreaker != null) {
+                    circuitBreaker.releasePermission(permission);
+                }
+                future.cancel(false);
+            }
+
+            private void onDone(final boolean success, final int statusCode, final Exception failure, final long bytesIn) {
+                long cost = System.currentTimeMillis() - start;
+                HostLatencyTracker.record(httpRequestBase.getURI(), cost);
+                HttpMetrics.record(httpRequestBase.getURI(), statusCode, failure, System.nanoTime() - startNanos,
+                        bytesOut, bytesIn);
+                if (circuitBreaker != null) {
+                    circuitBreaker.onResult(permission, success, cost);
+                }
+            }
+        };
+        Future<HttpResponse> responseFuture = HttpConnectionManager.getHttpAsyncClient().execute(httpRequestBase, callback);
+        // 取消future时同时中止请求
+        future.whenComplete((content, ex) -> {
+            if (future.isCancelled()) {
+                responseFuture.cancel(true);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 发送对冲 get请求
+     * @param httpUrl 地址
+     * @param header 请求头
+     * @return 响应字符串的future
+     */
+    public static CompletableFuture<String> sendHttpGetHedged(final String httpUrl, final Header... header) {
+        HttpGet httpGet = new HttpGet(httpUrl);
+        if (header != null) {
+            httpGet.setHeaders(header);
+        }
+        return sendHttpRequestHedged(httpGet, HttpRetryPolicy.getDefault());
+    }
+
+    /**
+     * 发送对冲请求, 首个请求超过对冲延迟(默认为该host最近耗时p95)仍未返回时再发一个相同请求, 取先成功返回的结果并取消另一个
+     * 非幂等请求、对冲延迟未知(样本不足)或重试预算不足时不对冲
+     * @param httpRequestBase the httpRequestBase
+     * @param retryPolicy 策略
+     * @return 响应字符串的future
+     */
+    public static CompletableFuture<String> sendHttpRequestHedged(final HttpRequestBase httpRequestBase,
+            final HttpRetryPolicy retryPolicy) {
+        if (!retryPolicy.isIdempotent(httpRequestBase)) {
+            return sendHttpRequestAsync(httpRequestBase);
+        }
+        long hedgeDelay = retryPolicy.getHedgeDelay() >= 0 ? retryPolicy.getHedgeDelay()
+                : HostLatencyTracker.getValueAtPercentile(httpRequestBase.getURI(), HEDGE_PERCENTILE);
+        if (hedgeDelay < 0) {
+            return sendHttpRequestAsync(httpRequestBase);
+        }
+        RetryBudget.getDefault().deposit();
+        CompletableFuture<String> result = new CompletableFuture<String>();
+        List<CompletableFuture<String>> attempts = new CopyOnWriteArrayList<CompletableFuture<String>>();
+        // 未结束的请求数, 归零后不再发起对冲
+        AtomicInteger pending = new AtomicInteger(1);
+        BiConsumer<String, Throwable> onAttemptDone = (content, ex) -> {
+            if (ex == null) {
+                result.complete(content);
+            } else if (pending.decrementAndGet() == 0) {
+                result.completeExceptionally(ex);
+            }
+        };
+        CompletableFuture<String> primary = sendHttpRequestAsync(httpRequestBase);
+        attempts.add(primary);
+        primary.whenComplete(onAttemptDone);
+        ScheduledFuture<?> hedgeTask = HedgeSchedulerHolder.SCHEDULER.schedule(() -> {
+            if (result.isDone() || !incrementIfPending(pending)) {
+                return;
+            }
+            if (!RetryBudget.getDefault().tryWithdraw()) {
+                pending.decrementAndGet();
+                return;
+            }
+            CompletableFuture<String> hedge;
+            try {
+                hedge = sendHttpRequestAsync((HttpRequestBase) httpRequestBase.clone());
+            } catch (final CloneNotSupportedException e) {
+                log.error("httpclient hedge clone error:{}", e.getMessage(), e);
+                hedge = new CompletableFuture<String>();
+                hedge.completeExceptionally(e);
+            }
+            attempts.add(hedge);
+            hedge.whenComplete(onAttemptDone);
+            // 加入前结果已完成时, 结果上的回调可能未看到此请求
+            if (result.isDone()) {
+                hedge.cancel(true);
+            }
+        }, Math.max(hedgeDelay, retryPolicy.getHedgeMinDelay()), TimeUnit.MILLISECONDS);
+        // 结果完成后统一取消对冲任务和所有未结束的请求
+        result.whenComplete((content, ex) -> {
+            hedgeTask.cancel(false);
+            for (CompletableFuture<String> attempt : attempts) {
+                attempt.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private static boolean incrementIfPending(final AtomicInteger pending) {
+        int current;
+        do {
+            current = pending.get();
+            if (current == 0) {
+                return false;
+            }
+        } while (!pending.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * 执行一次请求
+     * @param httpRequestBase the httpRequestBase
+     * @param responseHandler 响应处理
+     * @param attempt 本次请求的状态
+     * @param retryStatus 状态码需要重试时返回true, 此时不调用responseHandler并返回null, 为null时不重试
+     * @param <T> 返回类型
+     * @return T 处理结果
+     */
+    private static <T> T execute(final HttpRequestBase httpRequestBase,
+            final ResponseHandler<? extends T> responseHandler, final Attempt attempt, final IntPredicate retryStatus) {
+        T result;
+        long start = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
+        // 按host熔断和限制并发, 未开启时为null
+        CircuitBreaker circuitBreaker = CircuitBreakerRegistry.get(httpRequestBase.getURI());
+        long permission = circuitBreaker == null ? 0L : circuitBreaker.acquirePermission();
+        HttpClientContext context = HttpClientContext.create();
+        Exception failure = null;
+        try {
+            // 使用连接池中的共享httpClient
+            CloseableHttpClient httpClient = HttpConnectionManager.getHttpClient();
             httpRequestBase.setConfig(REQUEST_CONFIG);
             //在http header中存入requestId
             setRequestId(httpRequestBase);
-            // 执行请求
-            response = httpClient.execute(httpRequestBase);
-            entity = response.getEntity();
-            responseContent = EntityUtils.toString(entity, STR_ENCODE);
+            // 执行请求, 响应处理完成后自动关闭响应
+            result = httpClient.execute(httpRequestBase, response -> {
+                attempt.statusCode = response.getStatusLine().getStatusCode();
+                if (retryStatus != null && retryStatus.test(attempt.statusCode)) {
+                    // 丢弃响应体, 避免responseHandler处理将被重试的响应
+                    EntityUtils.consume(response.getEntity());
+                    attempt.retryStatus = true;
+                    return null;
+                }
+                attempt.handled = true;
+                return responseHandler.handleResponse(response);
+            }, context);
+        } catch (final SysException e) {
+            failure = e;
+            throw e;
         } catch (final Exception e) {
+            failure = e;
             throw new SysException(SysErrorConsts.SYS_ERROR_CODE, e.getMessage(), e);
         } finally {
-            try {
-                // 关闭连接,释放资源
-                HttpClientUtil.closeResources(response, httpClient);
-            } catch (final IOException e) {
-                throw new SysException(SysErrorConsts.SYS_ERROR_CODE, e.getMessage(), e);
+            long cost = System.currentTimeMillis() - start;
+            HostLatencyTracker.record(httpRequestBase.getURI(), cost);
+            HttpMetrics.record(httpRequestBase.getURI(), attempt.statusCode, failure, System.nanoTime() - startNanos,
+                    HttpMetrics.getBytesOut(context), HttpMetrics.getBytesIn(context));
+            if (circuitBreaker != null) {
+                // 未收到响应或5xx视为失败
+                circuitBreaker.onResult(permission, isSuccessStatus(attempt.statusCode), cost);
             }
         }
-        log.info("httpclient [{}], cost time [{}] ms )", httpRequestBase.getURI().toString(), System.currentTimeMillis() - start);
-        return responseContent;
+        if (ACCESS_LOG) {
+            log.info("httpclient [{}], cost time [{}] ms )", httpRequestBase.getURI().toString(),
+                    System.currentTimeMillis() - start);
+        }
+        return result;
+    }
+
+    private static void backoff(final HttpRequestBase httpRequestBase, final HttpRetryPolicy retryPolicy,
+            final int attempt, final String reason) {
+        long backoff = retryPolicy.computeBackoff(attempt);
+        log.warn("httpclient [{}] attempt {} failed: {}, retry after {} ms", httpRequestBase.getURI().toString(),
+                attempt, reason, backoff);
+        try {
+            Thread.sleep(backoff);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SysException(SysErrorConsts.SYS_ERROR_CODE, e.getMessage(), e);
+        }
+        httpRequestBase.reset();
     }
 
-    private static void closeResources(final CloseableHttpResponse closeableHttpResponse,
-            final CloseableHttpClient closeableHttpClient) throws IOException {
-        if (closeableHttpResponse != null) {
-            closeableHttpResponse.close();
+    private static String coalesceKey(final String httpUrl, final Header... header) {
+        if (header == null || header.length == 0) {
+            return httpUrl;
         }
-        if (closeableHttpClient != null) {
-            closeableHttpClient.close();
+        List<String> keyHeaders = new ArrayList<String>();
+        for (Header h : header) {
+            if (h != null && (COALESCE_HEADERS.isEmpty() || COALESCE_HEADERS.contains(h.getName().toLowerCase()))) {
+                keyHeaders.add(h.getName().toLowerCase() + ":" + h.getValue());
+            }
         }
+        Collections.sort(keyHeaders);
+        return httpUrl + "\n" + String.join("\n", keyHeaders);
+    }
+
+    /**
+     * 非2xx响应丢弃响应体并抛出异常
+     * @param response 响应
+     * @throws IOException 丢弃响应体异常
+     */
+    private static void checkSuccessStatus(final HttpResponse response) throws IOException {
+        int statusCode = response.getStatusLine().getStatusCode();
+        if (statusCode < HttpStatus.SC_OK || statusCode >= HttpStatus.SC_MULTIPLE_CHOICES) {
+            EntityUtils.consume(response.getEntity());
+            throw new SysException(SysErrorConsts.SYS_ERROR_CODE, "http status " + statusCode);
+        }
+    }
+
+    /**
+     * 缓存key, 包含全部请求头
+     * @param httpUrl 地址
+     * @param header 请求头
+     * @return key
+     */
+    private static String cacheKey(final String httpUrl, final Header... header) {
+        if (header == null || header.length == 0) {
+            return httpUrl;
+        }
+        List<String> keyHeaders = new ArrayList<String>();
+        for (Header h : header) {
+            if (h != null) {
+                keyHeaders.add(h.getName().toLowerCase() + ":" + h.getValue());
+            }
+        }
+        Collections.sort(keyHeaders);
+        return httpUrl + "\n" + String.join("\n", keyHeaders);
+    }
+
+    private static boolean isSuccessStatus(final int statusCode) {
+        return statusCode > 0 && statusCode < HttpStatus.SC_INTERNAL_SERVER_ERROR;
     }
 
     private static void setRequestId(final HttpMessage httpMessage) {
-         httpMessage.addHeader(REQUEST_ID, MDC.get(REQUEST_ID));
-         httpMessage.addHeader(USER_AGENT, HJ_IBJ);
+        // 重试和对冲会复用请求, 避免重复添加
+        if (!httpMessage.containsHeader(REQUEST_ID)) {
+            httpMessage.addHeader(REQUEST_ID, MDC.get(REQUEST_ID));
+        }
+        if (!httpMessage.containsHeader(USER_AGENT)) {
+            httpMessage.addHeader(USER_AGENT, HJ_IBJ);
+        }
+    }
+
+    /**
+     * 单次请求的状态, 供重试判断
+     */
+    private static final class Attempt {
+
+        /** 响应状态码, 未收到响应时为0 */
+        private int statusCode;
+
+        /** 已调用responseHandler, 之后的异常不重试 */
+        private boolean handled;
+
+        /** 状态码需要重试, 响应体已丢弃 */
+        private boolean retryStatus;
+    }
+
+    /**
+     * 对冲请求调度线程, 延迟加载
+     */
+    private static final class HedgeSchedulerHolder {
+
+        private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+                new NamedThreadFactory("httpclient-hedge", true));
+
+        private HedgeSchedulerHolder() { }
     }
 }
@@ -72,6 +72,9 @@ public interface SysErrorConsts {
     /** 所请求方法不存在 */
     int MISSING_METHOD_ERROR_CODE = -40401;
 
+    /** 下游服务熔断 */
+    int CIRCUIT_BREAKER_OPEN_ERROR_CODE = -50300;
+
     /** 服务器处理超时 */
     int SERVER_TIMEOUT_ERROR_CODE = -50400;
 
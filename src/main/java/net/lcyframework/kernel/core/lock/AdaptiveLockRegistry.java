@@ -0,0 +1,394 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.core.lock;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.util.Assert;
+
+import lombok.extern.slf4j.Slf4j;
+import net.lcyframework.kernel.core.task.ITask;
+import net.lcyframework.kernel.core.task.TaskManger;
+
+/**
+ * A striped {@link LockRegistry} like {@link DefaultLockRegistry} whose stripe table grows online.
+ * <ul>
+ * <li>The lockKey's hashCode is mixed before masking, so sequential or strided keys spread over all stripes.</li>
+ * <li>Acquisitions first try the stripe without blocking; when the share of acquisitions that found their stripe
+ * held exceeds 'contentionThreshold' (after at least 'minContended' contended acquisitions), a resize is requested,
+ * and an {@link ITask} scheduled with {@link TaskManger} every second doubles the table, up to 'maxStripes'; lock and
+ * unlock never resize themselves.</li>
+ * <li>The resize takes every stripe of the old table in index order before publishing the new one, so no thread
+ * holds an old stripe when the table is replaced. If they are not all taken within 100ms it gives up, clears the
+ * request and the counters of the table, and does not try again before a backoff doubling from one second up to
+ * one minute. A thread that acquires a stripe of a replaced table releases it and retries on the current one, so
+ * mutual exclusion per key holds throughout.</li>
+ * </ul>
+ * The locks returned are bound to the key, not to a stripe, and do not support conditions.
+ * {@link #obtainAll(Collection)} acquires the stripes in index order of the table current at acquisition time.
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+@Slf4j
+public final class AdaptiveLockRegistry implements LockRegistry, ITask {
+
+    private static final int DEFAULT_INITIAL_STRIPES = 256;
+    private static final int DEFAULT_MAX_STRIPES = 65536;
+    private static final double DEFAULT_CONTENTION_THRESHOLD = 0.1D;
+    private static final long DEFAULT_MIN_CONTENDED = 1000L;
+    private static final long RESIZE_TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long RESIZE_CHECK_PERIOD = 1000L;
+    private static final long MAX_RESIZE_BACKOFF = 60000L;
+
+    private static final AtomicInteger TASK_SEQUENCE = new AtomicInteger();
+
+    private final int maxStripes;
+
+    private final double contentionThreshold;
+
+    private final long minContended;
+
+    private final String taskName;
+
+    private volatile Table table;
+
+    /** Only accessed by the resize task. */
+    private long resizeBackoff = RESIZE_CHECK_PERIOD;
+
+    /** Only accessed by the resize task. */
+    private long nextResizeAttempt;
+
+    /**
+     * Constructs an AdaptiveLockRegistry starting with 256 stripes, growing up to 65536 stripes when more than
+     * 10% of acquisitions are contended.
+     */
+    public AdaptiveLockRegistry() {
+        this(DEFAULT_INITIAL_STRIPES, DEFAULT_MAX_STRIPES, DEFAULT_CONTENTION_THRESHOLD, DEFAULT_MIN_CONTENDED);
+    }
+
+    /**
+     * Constructs an AdaptiveLockRegistry and schedules the resize task.
+     * @param initialStripes the initial number of stripes, a power of 2.
+     * @param maxStripes the maximum number of stripes, a power of 2.
+     * @param contentionThreshold the share of contended acquisitions (0-1) that triggers growth.
+     * @param minContended the number of contended acquisitions of a table before growth is considered.
+     */
+    public AdaptiveLockRegistry(final int initialStripes, final int maxStripes, final double contentionThreshold,
+            final long minContended) {
+        LockRegistrySupport.checkMask(initialStripes - 1);
+        LockRegistrySupport.checkMask(maxStripes - 1);
+        Assert.isTrue(initialStripes > 0 && initialStripes <= maxStripes, "'initialStripes' must be in (0, maxStripes]");
+        this.maxStripes = maxStripes;
+        this.contentionThreshold = contentionThreshold;
+        this.minContended = minContended;
+        this.table = new Table(initialStripes);
+        this.taskName = AdaptiveLockRegistry.class.getSimpleName() + "-" + TASK_SEQUENCE.incrementAndGet();
+        TaskManger.getInstance().addTask(this, this.taskName, RESIZE_CHECK_PERIOD, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Lock obtain(final Object lockKey) {
+        return new KeyLock(new int[] {LockRegistrySupport.spread(lockKey)});
+    }
+
+    @Override
+    public Lock obtainAll(final Collection<?> lockKeys) {
+        Assert.notEmpty(lockKeys, "'lockKeys' must not be empty");
+        int[] hashes = new int[lockKeys.size()];
+        int i = 0;
+        for (Object lockKey : lockKeys) {
+            hashes[i++] = LockRegistrySupport.spread(lockKey);
+        }
+        return new KeyLock(hashes);
+    }
+
+    /**
+     * @return the current number of stripes.
+     */
+    public int getStripeCount() {
+        return this.table.locks.length;
+    }
+
+    /**
+     * Doubles the table if a resize was requested, invoked periodically by {@link TaskManger}.
+     */
+    @Override
+    public void execute() {
+        Table current = this.table;
+        long now = System.currentTimeMillis();
+        if (!current.resizeRequested || now < this.nextResizeAttempt) {
+            return;
+        }
+        if (tryResize(current)) {
+            this.resizeBackoff = RESIZE_CHECK_PERIOD;
+            return;
+        }
+        current.resetContention();
+        this.nextResizeAttempt = now + this.resizeBackoff;
+        log.debug("lock registry resize from {} stripes timed out, next attempt in {} ms", current.locks.length,
+                this.resizeBackoff);
+        this.resizeBackoff = Math.min(this.resizeBackoff << 1, MAX_RESIZE_BACKOFF);
+    }
+
+    /**
+     * Cancels the resize task; the registry keeps working with its current table.
+     */
+    public void destroy() {
+        TaskManger.getInstance().cancelTask(this.taskName);
+    }
+
+    /**
+     * @param current the table to replace.
+     * @return false if the stripes could not all be taken in time.
+     */
+    private boolean tryResize(final Table current) {
+        int locked = 0;
+        long deadline = System.nanoTime() + RESIZE_TIMEOUT_NANOS;
+        try {
+            // a thread still holding a stripe would keep using the old table after the swap
+            for (ReentrantLock lock : current.locks) {
+                if (!lock.tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    return false;
+                }
+                locked++;
+            }
+            this.table = new Table(current.locks.length << 1);
+            log.info("lock registry resized from {} to {} stripes", current.locks.length, current.locks.length << 1);
+            return true;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            for (int i = 0; i < locked; i++) {
+                current.locks[i].unlock();
+            }
+        }
+    }
+
+    /**
+     * A stripe table with its contention counters.
+     */
+    private final class Table {
+
+        private final ReentrantLock[] locks;
+
+        private final int mask;
+
+        private final LongAdder acquisitions = new LongAdder();
+
+        private final LongAdder contended = new LongAdder();
+
+        private volatile boolean resizeRequested;
+
+        Table(final int stripes) {
+            this.locks = new ReentrantLock[stripes];
+            for (int i = 0; i < stripes; i++) {
+                this.locks[i] = new ReentrantLock();
+            }
+            this.mask = stripes - 1;
+        }
+
+        /**
+         * @param hashes the mixed hashes of the keys.
+         * @return the distinct stripe indexes in ascending order.
+         */
+        int[] stripes(final int[] hashes) {
+            int[] indexes = new int[hashes.length];
+            for (int i = 0; i < hashes.length; i++) {
+                indexes[i] = hashes[i] & this.mask;
+            }
+            if (indexes.length == 1) {
+                return indexes;
+            }
+            Arrays.sort(indexes);
+            int distinct = 1;
+            for (int i = 1; i < indexes.length; i++) {
+                if (indexes[i] != indexes[distinct - 1]) {
+                    indexes[distinct++] = indexes[i];
+                }
+            }
+            return distinct == indexes.length ? indexes : Arrays.copyOf(indexes, distinct);
+        }
+
+        void recordContention() {
+            this.contended.increment();
+            if (!this.resizeRequested && this.locks.length < AdaptiveLockRegistry.this.maxStripes) {
+                long contendedCount = this.contended.sum();
+                if (contendedCount >= AdaptiveLockRegistry.this.minContended && contendedCount
+                        > this.acquisitions.sum() * AdaptiveLockRegistry.this.contentionThreshold) {
+                    this.resizeRequested = true;
+                }
+            }
+        }
+
+        /**
+         * Clears a failed resize request, so it is only requested again on fresh contention.
+         */
+        void resetContention() {
+            this.acquisitions.reset();
+            this.contended.reset();
+            this.resizeRequested = false;
+        }
+    }
+
+    /**
+     * The lock of one or several keys, resolving the stripes against the current table on every acquisition.
+     * While any stripe is held the table can not be replaced, so unlock resolves the same stripes.
+     */
+    private final class KeyLock implements Lock {
+
+        private final int[] hashes;
+
+        KeyLock(final int[] hashes) {
+            this.hashes = hashes;
+        }
+
+        @Override
+        public void lock() {
+            while (true) {
+                Table current = AdaptiveLockRegistry.this.table;
+                int[] stripes = current.stripes(this.hashes);
+                acquire(current, stripes[0]);
+                if (current != AdaptiveLockRegistry.this.table) {
+                    current.locks[stripes[0]].unlock();
+                    continue;
+                }
+                for (int i = 1; i < stripes.length; i++) {
+                    acquire(current, stripes[i]);
+                }
+                return;
+            }
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            while (true) {
+                Table current = AdaptiveLockRegistry.this.table;
+                int[] stripes = current.stripes(this.hashes);
+                acquireInterruptibly(current, stripes[0]);
+                if (current != AdaptiveLockRegistry.this.table) {
+                    current.locks[stripes[0]].unlock();
+                    continue;
+                }
+                int acquired = 1;
+                try {
+                    for (; acquired < stripes.length; acquired++) {
+                        acquireInterruptibly(current, stripes[acquired]);
+                    }
+                } finally {
+                    if (acquired < stripes.length) {
+                        release(current, stripes, acquired);
+                    }
+                }
+                return;
+            }
+        }
+
+        @Override
+        public boolean tryLock() {
+            Table current = AdaptiveLockRegistry.this.table;
+            int[] stripes = current.stripes(this.hashes);
+            int acquired = 0;
+            for (; acquired < stripes.length; acquired++) {
+                if (!current.locks[stripes[acquired]].tryLock()) {
+                    break;
+                }
+            }
+            if (acquired == stripes.length && current == AdaptiveLockRegistry.this.table) {
+                current.acquisitions.increment();
+                return true;
+            }
+            release(current, stripes, acquired);
+            return false;
+        }
+
+        @Override
+        public boolean tryLock(final long time, final TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(time);
+            while (true) {
+                Table current = AdaptiveLockRegistry.this.table;
+                int[] stripes = current.stripes(this.hashes);
+                int acquired = 0;
+                try {
+                    for (; acquired < stripes.length; acquired++) {
+                        if (!current.locks[stripes[acquired]].tryLock(deadline - System.nanoTime(),
+                                TimeUnit.NANOSECONDS)) {
+                            return false;
+                        }
+                        if (acquired == 0 && current != AdaptiveLockRegistry.this.table) {
+                            break;
+                        }
+                    }
+                    if (acquired == stripes.length) {
+                        current.acquisitions.increment();
+                        return true;
+                    }
+                    // the table was replaced before the first stripe was acquired
+                    current.locks[stripes[0]].unlock();
+                    acquired = stripes.length;
+                } finally {
+                    if (acquired < stripes.length) {
+                        release(current, stripes, acquired);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void unlock() {
+            Table current = AdaptiveLockRegistry.this.table;
+            int[] stripes = current.stripes(this.hashes);
+            release(current, stripes, stripes.length);
+        }
+
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException("Conditions are not supported");
+        }
+
+        private void acquire(final Table current, final int stripe) {
+            ReentrantLock lock = current.locks[stripe];
+            if (!lock.tryLock()) {
+                current.recordContention();
+                lock.lock();
+            }
+            current.acquisitions.increment();
+        }
+
+        private void acquireInterruptibly(final Table current, final int stripe) throws InterruptedException {
+            ReentrantLock lock = current.locks[stripe];
+            if (!lock.tryLock()) {
+                current.recordContention();
+                lock.lockInterruptibly();
+            }
+            current.acquisitions.increment();
+        }
+
+        private void release(final Table current, final int[] stripes, final int acquired) {
+            for (int i = acquired - 1; i >= 0; i--) {
+                current.locks[stripes[i]].unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.core.lock;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+/**
+ * Strategy for maintaining a registry of keyed locks acquired without blocking: acquisition returns a future
+ * completed with a {@link LockHandle} once the lock is granted, so waiting does not hold a thread.
+ * The locks are exclusive and not reentrant.
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+public interface AsyncLockRegistry {
+
+    /**
+     * Acquires the lock associated with the parameter object. Cancelling the returned future before it completes
+     * withdraws the request.
+     * @param lockKey The object with which the lock is associated.
+     * @return a future completed with the handle once the lock is granted.
+     */
+    CompletableFuture<LockHandle> acquire(Object lockKey);
+
+    /**
+     * Runs the action holding the lock associated with the parameter object, and releases the lock when the
+     * stage returned by the action completes, or at once if the action throws or returns null. Cancelling the
+     * returned future while the lock is awaited withdraws the request; a lock granted after the returned future
+     * completed is released without running the action.
+     * @param lockKey The object with which the lock is associated.
+     * @param action the asynchronous critical section.
+     * @param <T> the result type.
+     * @return a future completed with the result of the action.
+     */
+    default <T> CompletableFuture<T> executeLocked(final Object lockKey,
+            final Supplier<? extends CompletionStage<T>> action) {
+        CompletableFuture<LockHandle> acquired = acquire(lockKey);
+        CompletableFuture<T> result = new CompletableFuture<T>();
+        acquired.whenComplete((handle, failure) -> {
+            if (failure != null) {
+                result.completeExceptionally(failure);
+                return;
+            }
+            if (result.isDone()) {
+                // the caller gave up while waiting
+                handle.release();
+                return;
+            }
+            CompletionStage<T> stage;
+            try {
+                stage = action.get();
+                if (stage == null) {
+                    throw new NullPointerException("action returned null stage");
+                }
+            } catch (final Throwable e) {
+                // release before completing, also for an Error, so the key is not locked forever
+                handle.release();
+                result.completeExceptionally(e);
+                return;
+            }
+            stage.whenComplete((value, ex) -> {
+                handle.release();
+                if (ex != null) {
+                    result.completeExceptionally(ex);
+                } else {
+                    result.complete(value);
+                }
+            });
+        });
+        result.whenComplete((value, ex) -> {
+            if (!acquired.isDone()) {
+                acquired.cancel(false);
+            }
+        });
+        return result;
+    }
+}
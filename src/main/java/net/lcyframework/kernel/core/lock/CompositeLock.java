@@ -0,0 +1,201 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.core.lock;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.util.Assert;
+
+/**
+ * A {@link Lock} over several locks acquired in a fixed global order, as returned by
+ * {@link LockRegistry#obtainAll(java.util.Collection)}. Threads locking overlapping sets always acquire the common
+ * locks in the same order, so they can not deadlock each other. If an acquisition fails, throws or times out the
+ * locks already acquired are released in reverse order; {@link #unlock()} releases all of them in reverse order.
+ * When the order is derived from hash codes and two locks have the same hash, a global tie lock is held while
+ * acquiring, as in the classic ordered locking pattern.
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+public final class CompositeLock implements Lock {
+
+    private static final Lock TIE_LOCK = new ReentrantLock();
+
+    private final List<Lock> locks;
+
+    private final Lock tieLock;
+
+    /**
+     * Constructs a CompositeLock over locks already in a unique global order.
+     * @param orderedLocks the distinct locks in acquisition order.
+     */
+    public CompositeLock(final List<Lock> orderedLocks) {
+        this(orderedLocks, null);
+    }
+
+    private CompositeLock(final List<Lock> orderedLocks, final Lock tieLock) {
+        Assert.notEmpty(orderedLocks, "'orderedLocks' must not be empty");
+        this.locks = Collections.unmodifiableList(new ArrayList<Lock>(orderedLocks));
+        this.tieLock = tieLock;
+    }
+
+    /**
+     * Constructs a CompositeLock acquiring the locks in ascending order of the given hash codes.
+     * @param locks the distinct locks.
+     * @param hashes the hash code of every lock, e.g. its identity hash code.
+     * @return the composite lock.
+     */
+    public static CompositeLock orderedByHash(final List<Lock> locks, final int[] hashes) {
+        Assert.isTrue(locks.size() == hashes.length, "'hashes' must have one element per lock");
+        List<Integer> indexes = new ArrayList<Integer>(locks.size());
+        for (int i = 0; i < locks.size(); i++) {
+            indexes.add(i);
+        }
+        indexes.sort(Comparator.comparingInt(i -> hashes[i]));
+        List<Lock> ordered = new ArrayList<Lock>(locks.size());
+        boolean tie = false;
+        for (int i = 0; i < indexes.size(); i++) {
+            ordered.add(locks.get(indexes.get(i)));
+            tie |= i > 0 && hashes[indexes.get(i)] == hashes[indexes.get(i - 1)];
+        }
+        return new CompositeLock(ordered, tie ? TIE_LOCK : null);
+    }
+
+    /**
+     * @return the locks in acquisition order.
+     */
+    public List<Lock> getLocks() {
+        return this.locks;
+    }
+
+    @Override
+    public void lock() {
+        if (this.tieLock != null) {
+            this.tieLock.lock();
+        }
+        int acquired = 0;
+        try {
+            for (Lock lock : this.locks) {
+                lock.lock();
+                acquired++;
+            }
+        } finally {
+            releaseIfIncomplete(acquired);
+        }
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+        if (this.tieLock != null) {
+            this.tieLock.lockInterruptibly();
+        }
+        int acquired = 0;
+        try {
+            for (Lock lock : this.locks) {
+                lock.lockInterruptibly();
+                acquired++;
+            }
+        } finally {
+            releaseIfIncomplete(acquired);
+        }
+    }
+
+    @Override
+    public boolean tryLock() {
+        if (this.tieLock != null && !this.tieLock.tryLock()) {
+            return false;
+        }
+        int acquired = 0;
+        try {
+            for (Lock lock : this.locks) {
+                if (!lock.tryLock()) {
+                    return false;
+                }
+                acquired++;
+            }
+            return true;
+        } finally {
+            releaseIfIncomplete(acquired);
+        }
+    }
+
+    @Override
+    public boolean tryLock(final long time, final TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(time);
+        if (this.tieLock != null && !this.tieLock.tryLock(time, unit)) {
+            return false;
+        }
+        int acquired = 0;
+        try {
+            for (Lock lock : this.locks) {
+                if (!lock.tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    return false;
+                }
+                acquired++;
+            }
+            return true;
+        } finally {
+            releaseIfIncomplete(acquired);
+        }
+    }
+
+    @Override
+    public void unlock() {
+        release(this.locks.size());
+    }
+
+    @Override
+    public Condition newCondition() {
+        throw new UnsupportedOperationException("Conditions are not supported");
+    }
+
+    /**
+     * Releases the tie lock, and the acquired locks unless all were acquired.
+     * @param acquired the number of locks acquired.
+     */
+    private void releaseIfIncomplete(final int acquired) {
+        try {
+            if (acquired < this.locks.size()) {
+                release(acquired);
+            }
+        } finally {
+            if (this.tieLock != null) {
+                this.tieLock.unlock();
+            }
+        }
+    }
+
+    private void release(final int acquired) {
+        RuntimeException failure = null;
+        for (int i = acquired - 1; i >= 0; i--) {
+            try {
+                this.locks.get(i).unlock();
+            } catch (final RuntimeException e) {
+                failure = failure == null ? e : failure;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
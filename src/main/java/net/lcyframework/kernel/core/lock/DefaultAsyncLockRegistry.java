@@ -0,0 +1,183 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.core.lock;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.util.Assert;
+
+/**
+ * Default implementation of {@link AsyncLockRegistry} with a FIFO queue of waiters per key.
+ * A free lock is granted immediately with an already completed future, so the continuation runs on the calling
+ * thread. Otherwise the waiter is queued and {@link LockHandle#release()} hands the lock to the next waiter by
+ * completing its future on the executor, so the releasing thread does not run the next critical section.
+ * A key is only present in the registry while its lock is held, no expiry is needed.
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+public final class DefaultAsyncLockRegistry implements AsyncLockRegistry {
+
+    private final ConcurrentMap<Object, KeyQueue> queues = new ConcurrentHashMap<Object, KeyQueue>();
+
+    private final Executor executor;
+
+    /**
+     * Constructs a DefaultAsyncLockRegistry handing off on the {@link ForkJoinPool#commonPool()}.
+     */
+    public DefaultAsyncLockRegistry() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a DefaultAsyncLockRegistry.
+     * @param executor the executor running the continuations of waiters.
+     */
+    public DefaultAsyncLockRegistry(final Executor executor) {
+        Assert.notNull(executor, "'executor' must not be null");
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<LockHandle> acquire(final Object lockKey) {
+        Assert.notNull(lockKey, "'lockKey' must not be null");
+        CompletableFuture<LockHandle> future = new CompletableFuture<LockHandle>();
+        boolean[] granted = new boolean[1];
+        this.queues.compute(lockKey, (key, queue) -> {
+            if (queue == null) {
+                granted[0] = true;
+                return new KeyQueue();
+            }
+            queue.waiters.add(future);
+            return queue;
+        });
+        if (granted[0]) {
+            future.complete(new Handle(lockKey));
+        } else {
+            // a cancelled waiter gives up its slot at once instead of waiting to be skipped by a release
+            future.whenComplete((handle, ex) -> {
+                if (future.isCancelled()) {
+                    this.queues.computeIfPresent(lockKey, (key, queue) -> {
+                        queue.waiters.remove(future);
+                        return queue;
+                    });
+                }
+            });
+        }
+        return future;
+    }
+
+    /**
+     * @return the number of keys whose lock is held.
+     */
+    public int getLockedCount() {
+        return this.queues.size();
+    }
+
+    /**
+     * @param lockKey the key.
+     * @return the number of waiters queued for the key, including withdrawn ones not yet removed.
+     */
+    public int getQueueLength(final Object lockKey) {
+        int[] length = new int[1];
+        this.queues.computeIfPresent(lockKey, (key, queue) -> {
+            length[0] = queue.waiters.size();
+            return queue;
+        });
+        return length[0];
+    }
+
+    private void release(final Object lockKey) {
+        while (true) {
+            CompletableFuture<LockHandle> next = nextWaiter(lockKey);
+            if (next == null) {
+                return;
+            }
+            // waiters withdrawn but not yet removed are skipped
+            if (!next.isDone()) {
+                handOff(lockKey, next);
+                return;
+            }
+        }
+    }
+
+    private CompletableFuture<LockHandle> nextWaiter(final Object lockKey) {
+        AtomicReference<CompletableFuture<LockHandle>> next = new AtomicReference<CompletableFuture<LockHandle>>();
+        this.queues.computeIfPresent(lockKey, (key, queue) -> {
+            next.set(queue.waiters.poll());
+            return next.get() == null ? null : queue;
+        });
+        return next.get();
+    }
+
+    private void handOff(final Object lockKey, final CompletableFuture<LockHandle> waiter) {
+        Handle handle = new Handle(lockKey);
+        Runnable grant = () -> {
+            if (!waiter.complete(handle)) {
+                // cancelled after being polled, the lock passes on
+                handle.release();
+            }
+        };
+        try {
+            this.executor.execute(grant);
+        } catch (final RejectedExecutionException e) {
+            grant.run();
+        }
+    }
+
+    /**
+     * The waiters of a held lock, only accessed inside the map's compute functions.
+     */
+    private static final class KeyQueue {
+
+        private final Queue<CompletableFuture<LockHandle>> waiters = new ArrayDeque<CompletableFuture<LockHandle>>();
+    }
+
+    /**
+     * A granted lock.
+     */
+    private final class Handle implements LockHandle {
+
+        private final Object lockKey;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Handle(final Object lockKey) {
+            this.lockKey = lockKey;
+        }
+
+        @Override
+        public Object getLockKey() {
+            return this.lockKey;
+        }
+
+        @Override
+        public void release() {
+            if (this.released.compareAndSet(false, true)) {
+                DefaultAsyncLockRegistry.this.release(this.lockKey);
+            }
+        }
+    }
+}
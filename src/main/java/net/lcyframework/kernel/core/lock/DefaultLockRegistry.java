@@ -18,6 +18,10 @@ package net.lcyframework.kernel.core.lock;
 
 import org.springframework.util.Assert;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -33,9 +37,6 @@ import java.util.concurrent.locks.ReentrantLock;
  */
 public final class DefaultLockRegistry implements LockRegistry {
 
-    private static final int MASK_0XFF = 0xFF;
-    private static final int BITS_LENGTH = 32;
-
     private final Lock[] lockTable;
 
     private final int mask;
@@ -45,7 +46,7 @@ public final class DefaultLockRegistry implements LockRegistry {
      * mask 0xFF with 256 locks.
      */
     public DefaultLockRegistry() {
-        this(MASK_0XFF);
+        this(LockRegistrySupport.MASK_0XFF);
     }
 
     /**
@@ -60,8 +61,7 @@ public final class DefaultLockRegistry implements LockRegistry {
      * @param mask The bit mask.
      */
     public DefaultLockRegistry(final int mask) {
-        String bits = Integer.toBinaryString(mask);
-        Assert.isTrue(bits.length() < BITS_LENGTH && (mask == 0 || bits.lastIndexOf('0') < bits.indexOf('1')), "Mask must be a power of 2 - 1");
+        LockRegistrySupport.checkMask(mask);
         this.mask = mask;
         int arraySize = this.mask + 1;
         this.lockTable = new ReentrantLock[arraySize];
@@ -77,8 +77,22 @@ public final class DefaultLockRegistry implements LockRegistry {
      */
     @Override
     public Lock obtain(final Object lockKey) {
-        Assert.notNull(lockKey, "'lockKey' must not be null");
-        Integer lockIndex = lockKey.hashCode() & this.mask;
-        return this.lockTable[lockIndex];
+        return this.lockTable[LockRegistrySupport.indexFor(lockKey, this.mask)];
+    }
+
+    /**
+     * Obtains one lock over the stripes of all the keys; keys on the same stripe are locked once and the stripes
+     * are acquired in ascending index order.
+     * @param lockKeys the objects used to derive the locks indexes.
+     */
+    @Override
+    public Lock obtainAll(final Collection<?> lockKeys) {
+        Assert.notEmpty(lockKeys, "'lockKeys' must not be empty");
+        SortedMap<Integer, Lock> stripes = new TreeMap<Integer, Lock>();
+        for (Object lockKey : lockKeys) {
+            int lockIndex = LockRegistrySupport.indexFor(lockKey, this.mask);
+            stripes.put(lockIndex, this.lockTable[lockIndex]);
+        }
+        return new CompositeLock(new ArrayList<Lock>(stripes.values()));
     }
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.core.lock;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Default implementation of {@link ReadWriteLockRegistry} which uses the same Masked Hashcode algorithm as
+ * {@link DefaultLockRegistry} over an array of {@link ReentrantReadWriteLock} instances. The default mask is 0xFF
+ * which will create an array consisting of 256 locks.
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+public final class DefaultReadWriteLockRegistry implements ReadWriteLockRegistry {
+
+    private final ReadWriteLock[] lockTable;
+
+    private final int mask;
+
+    /**
+     * Constructs a DefaultReadWriteLockRegistry with the default
+     * mask 0xFF with 256 locks.
+     */
+    public DefaultReadWriteLockRegistry() {
+        this(LockRegistrySupport.MASK_0XFF);
+    }
+
+    /**
+     * Constructs a DefaultReadWriteLockRegistry with the supplied
+     * mask - the mask must have a value Math.pow(2, n) - 1 where n
+     * is 1 to 31, creating a hash of Math.pow(2, n) locks.
+     * @param mask The bit mask.
+     */
+    public DefaultReadWriteLockRegistry(final int mask) {
+        LockRegistrySupport.checkMask(mask);
+        this.mask = mask;
+        int arraySize = this.mask + 1;
+        this.lockTable = new ReentrantReadWriteLock[arraySize];
+        for (int i = 0; i < arraySize; i++) {
+            this.lockTable[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    /**
+     * Obtains a locks by masking the lockKey's hashCode() with
+     * the mask and using the result as an index to the locks table.
+     * @param lockKey the object used to derive the locks index.
+     */
+    @Override
+    public ReadWriteLock obtain(final Object lockKey) {
+        return this.lockTable[LockRegistrySupport.indexFor(lockKey, this.mask)];
+    }
+}
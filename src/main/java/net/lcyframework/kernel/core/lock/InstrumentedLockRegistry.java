@@ -0,0 +1,377 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.core.lock;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+
+import org.springframework.util.Assert;
+
+import net.lcyframework.kernel.core.metrics.LatencyHistogram;
+
+/**
+ * A {@link LockRegistry} decorator recording lock contention of the delegate registry.
+ * <ul>
+ * <li>Every acquisition first tries {@link Lock#tryLock()}, only acquisitions which find the lock held are counted as
+ * contended and have their wait time recorded, so the uncontended path costs one extra tryLock and a counter.</li>
+ * <li>Hold times are recorded for one in 'sampleRate' acquisitions.</li>
+ * <li>Statistics are kept per stripe, the lockKey's hashCode masked like {@link DefaultLockRegistry}, so with a
+ * stripe count not greater than the delegate's table size every stripe aggregates whole delegate stripes.
+ * Histograms of a stripe are created on its first contention or sample.</li>
+ * <li>Contended keys are counted with the space-saving algorithm in at most 'maxTrackedKeys' counters: once full,
+ * a newly contended key replaces the least counted one and inherits its count plus one, so keys which become hot
+ * later are still admitted; a count overestimates by at most the count it inherited. The replacement scans the
+ * counters under a lock, it only runs for a new key on a path which is about to block anyway.</li>
+ * </ul>
+ * The extra tryLock is local for in-process registries; decorating a remote registry such as a ZooKeeper one
+ * makes it a round trip, so prefer instrumenting the local registries.
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+public final class InstrumentedLockRegistry implements LockRegistry {
+
+    private static final int DEFAULT_STRIPES = 64;
+    private static final int DEFAULT_SAMPLE_RATE = 16;
+    private static final int DEFAULT_MAX_TRACKED_KEYS = 1024;
+    private static final double P50 = 50D;
+    private static final double P99 = 99D;
+
+    private final LockRegistry delegate;
+
+    private final int mask;
+
+    private final int sampleRate;
+
+    private final int maxTrackedKeys;
+
+    private final StripeMetrics[] stripes;
+
+    private final ConcurrentMap<Object, LongAdder> contendedKeys = new ConcurrentHashMap<Object, LongAdder>();
+
+    /**
+     * Constructs an InstrumentedLockRegistry with 64 stripes, sampling the hold time of one in 16 acquisitions and
+     * tracking up to 1024 contended keys.
+     * @param delegate the registry to instrument.
+     */
+    public InstrumentedLockRegistry(final LockRegistry delegate) {
+        this(delegate, DEFAULT_STRIPES, DEFAULT_SAMPLE_RATE, DEFAULT_MAX_TRACKED_KEYS);
+    }
+
+    /**
+     * Constructs an InstrumentedLockRegistry.
+     * @param delegate the registry to instrument.
+     * @param stripes the number of statistic stripes, a power of 2.
+     * @param sampleRate hold times are recorded for one in sampleRate acquisitions, 1 records all.
+     * @param maxTrackedKeys the maximum number of contended keys tracked.
+     */
+    public InstrumentedLockRegistry(final LockRegistry delegate, final int stripes, final int sampleRate,
+            final int maxTrackedKeys) {
+        Assert.notNull(delegate, "'delegate' must not be null");
+        Assert.isTrue(stripes > 0 && (stripes & (stripes - 1)) == 0, "'stripes' must be a power of 2");
+        Assert.isTrue(sampleRate > 0, "'sampleRate' must be greater than 0");
+        this.delegate = delegate;
+        this.mask = stripes - 1;
+        this.sampleRate = sampleRate;
+        this.maxTrackedKeys = maxTrackedKeys;
+        this.stripes = new StripeMetrics[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new StripeMetrics();
+        }
+    }
+
+    @Override
+    public Lock obtain(final Object lockKey) {
+        return new InstrumentedLock(lockKey, false, this.delegate.obtain(lockKey),
+                this.stripes[LockRegistrySupport.indexFor(lockKey, this.mask)]);
+    }
+
+    /**
+     * Obtains the composite lock of the delegate, so its ordering is kept; it is recorded on the stripe of the
+     * first key, and its contention is counted for each of its keys.
+     * @param lockKeys the objects with which the locks are associated.
+     */
+    @Override
+    public Lock obtainAll(final Collection<?> lockKeys) {
+        Assert.notEmpty(lockKeys, "'lockKeys' must not be empty");
+        Object firstKey = lockKeys.iterator().next();
+        return new InstrumentedLock(lockKeys, true, this.delegate.obtainAll(lockKeys),
+                this.stripes[LockRegistrySupport.indexFor(firstKey, this.mask)]);
+    }
+
+    /**
+     * @return the statistics of all stripes which have been used.
+     */
+    public List<LockStripeStats> getStripeStats() {
+        List<LockStripeStats> stats = new ArrayList<LockStripeStats>();
+        for (int i = 0; i < this.stripes.length; i++) {
+            if (this.stripes[i].acquireCount.sum() > 0 || this.stripes[i].timeoutCount.sum() > 0) {
+                stats.add(this.stripes[i].snapshot(i));
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * The most contended keys.
+     * @param n the number of keys.
+     * @return key (toString) to contention count, most contended first.
+     */
+    public Map<String, Long> getTopContendedKeys(final int n) {
+        List<Map.Entry<String, Long>> counts = new ArrayList<Map.Entry<String, Long>>(this.contendedKeys.size());
+        for (Map.Entry<Object, LongAdder> entry : this.contendedKeys.entrySet()) {
+            counts.add(new AbstractMap.SimpleImmutableEntry<String, Long>(String.valueOf(entry.getKey()),
+                    entry.getValue().sum()));
+        }
+        counts.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+        Map<String, Long> top = new LinkedHashMap<String, Long>();
+        for (Map.Entry<String, Long> entry : counts.subList(0, Math.min(n, counts.size()))) {
+            top.put(entry.getKey(), entry.getValue());
+        }
+        return top;
+    }
+
+    /**
+     * Clears all statistics, not atomic with concurrent recording.
+     */
+    public void reset() {
+        for (StripeMetrics stripe : this.stripes) {
+            stripe.reset();
+        }
+        this.contendedKeys.clear();
+    }
+
+    private void recordContention(final Object lockKey) {
+        if (this.maxTrackedKeys <= 0) {
+            return;
+        }
+        LongAdder counter = this.contendedKeys.get(lockKey);
+        if (counter == null) {
+            counter = admit(lockKey);
+        }
+        counter.increment();
+    }
+
+    /**
+     * Space-saving admission of a key which is not tracked yet.
+     */
+    private LongAdder admit(final Object lockKey) {
+        synchronized (this.contendedKeys) {
+            LongAdder counter = this.contendedKeys.get(lockKey);
+            if (counter != null) {
+                return counter;
+            }
+            counter = new LongAdder();
+            if (this.contendedKeys.size() >= this.maxTrackedKeys) {
+                Map.Entry<Object, LongAdder> min = null;
+                long minCount = Long.MAX_VALUE;
+                for (Map.Entry<Object, LongAdder> entry : this.contendedKeys.entrySet()) {
+                    long count = entry.getValue().sum();
+                    if (count < minCount) {
+                        min = entry;
+                        minCount = count;
+                    }
+                }
+                if (min != null) {
+                    this.contendedKeys.remove(min.getKey());
+                    counter.add(minCount);
+                }
+            }
+            this.contendedKeys.put(lockKey, counter);
+            return counter;
+        }
+    }
+
+    /**
+     * The statistics of one stripe.
+     */
+    private static final class StripeMetrics {
+
+        private final LongAdder acquireCount = new LongAdder();
+
+        private final LongAdder contendedCount = new LongAdder();
+
+        private final LongAdder timeoutCount = new LongAdder();
+
+        /** [0] wait, [1] hold; created lazily. */
+        private final AtomicReferenceArray<LatencyHistogram> histograms = new AtomicReferenceArray<LatencyHistogram>(2);
+
+        void recordWait(final long nanos) {
+            histogram(0).record(TimeUnit.NANOSECONDS.toMicros(nanos));
+        }
+
+        void recordHold(final long nanos) {
+            histogram(1).record(TimeUnit.NANOSECONDS.toMicros(nanos));
+        }
+
+        private LatencyHistogram histogram(final int index) {
+            LatencyHistogram histogram = this.histograms.get(index);
+            if (histogram == null) {
+                this.histograms.compareAndSet(index, null, new LatencyHistogram());
+                histogram = this.histograms.get(index);
+            }
+            return histogram;
+        }
+
+        void reset() {
+            this.acquireCount.reset();
+            this.contendedCount.reset();
+            this.timeoutCount.reset();
+            this.histograms.set(0, null);
+            this.histograms.set(1, null);
+        }
+
+        LockStripeStats snapshot(final int stripe) {
+            LockStripeStats stats = new LockStripeStats();
+            stats.setStripe(stripe);
+            stats.setAcquireCount(this.acquireCount.sum());
+            stats.setContendedCount(this.contendedCount.sum());
+            stats.setTimeoutCount(this.timeoutCount.sum());
+            LatencyHistogram wait = this.histograms.get(0);
+            if (wait != null) {
+                stats.setWaitP50(wait.getValueAtPercentile(P50));
+                stats.setWaitP99(wait.getValueAtPercentile(P99));
+                stats.setWaitMax(wait.getMax());
+            }
+            LatencyHistogram hold = this.histograms.get(1);
+            if (hold != null) {
+                stats.setHoldP50(hold.getValueAtPercentile(P50));
+                stats.setHoldP99(hold.getValueAtPercentile(P99));
+                stats.setHoldMax(hold.getMax());
+            }
+            return stats;
+        }
+    }
+
+    /**
+     * Wraps a lock of the delegate. The hold bookkeeping fields are only accessed by the thread holding the lock,
+     * so they are guarded by the lock itself even if the instance is shared.
+     */
+    private final class InstrumentedLock implements Lock {
+
+        private final Object lockKey;
+
+        /** Whether lockKey is the key collection of a composite lock. */
+        private final boolean composite;
+
+        private final Lock lock;
+
+        private final StripeMetrics metrics;
+
+        private int depth;
+
+        private long holdStart;
+
+        InstrumentedLock(final Object lockKey, final boolean composite, final Lock lock, final StripeMetrics metrics) {
+            this.lockKey = lockKey;
+            this.composite = composite;
+            this.lock = lock;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public void lock() {
+            if (!this.lock.tryLock()) {
+                long start = contended();
+                this.lock.lock();
+                this.metrics.recordWait(System.nanoTime() - start);
+            }
+            acquired();
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            if (!this.lock.tryLock()) {
+                long start = contended();
+                this.lock.lockInterruptibly();
+                this.metrics.recordWait(System.nanoTime() - start);
+            }
+            acquired();
+        }
+
+        @Override
+        public boolean tryLock() {
+            if (!this.lock.tryLock()) {
+                contended();
+                this.metrics.timeoutCount.increment();
+                return false;
+            }
+            acquired();
+            return true;
+        }
+
+        @Override
+        public boolean tryLock(final long time, final TimeUnit unit) throws InterruptedException {
+            if (!this.lock.tryLock()) {
+                long start = contended();
+                boolean locked = this.lock.tryLock(time, unit);
+                this.metrics.recordWait(System.nanoTime() - start);
+                if (!locked) {
+                    this.metrics.timeoutCount.increment();
+                    return false;
+                }
+            }
+            acquired();
+            return true;
+        }
+
+        @Override
+        public void unlock() {
+            if (--this.depth == 0 && this.holdStart != 0L) {
+                this.metrics.recordHold(System.nanoTime() - this.holdStart);
+            }
+            this.lock.unlock();
+        }
+
+        @Override
+        public Condition newCondition() {
+            return this.lock.newCondition();
+        }
+
+        private long contended() {
+            this.metrics.contendedCount.increment();
+            if (this.composite) {
+                for (Object key : (Collection<?>) this.lockKey) {
+                    recordContention(key);
+                }
+            } else {
+                recordContention(this.lockKey);
+            }
+            return System.nanoTime();
+        }
+
+        private void acquired() {
+            this.metrics.acquireCount.increment();
+            if (this.depth++ == 0) {
+                this.holdStart = InstrumentedLockRegistry.this.sampleRate == 1
+                        || ThreadLocalRandom.current().nextInt(InstrumentedLockRegistry.this.sampleRate) == 0
+                        ? System.nanoTime() : 0L;
+            }
+        }
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.core.lock;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.util.Assert;
+
+import net.lcyframework.kernel.core.task.ITask;
+import net.lcyframework.kernel.core.task.TaskManger;
+
+/**
+ * An {@link ExpirableLockRegistry} which gives every lockKey its own {@link ReentrantLock}, so unrelated keys
+ * never contend with each other as they can in {@link DefaultLockRegistry}.
+ * Locks are kept in a {@link ConcurrentMap} together with the time they were last obtained, and locks that are not
+ * held and have not been obtained for {@link #getExpireUnusedOlderThanTime()} are removed by a background
+ * {@link ITask} scheduled with {@link TaskManger}, so the map does not grow without bound.
+ * A thread which locks an instance that has just been removed releases it and retries with the lock currently
+ * registered for the key, so mutual exclusion per key is preserved across eviction.
+ * A lock on which a {@link Condition} has been created is never expired, so threads awaiting or signalling the
+ * condition always use the lock it belongs to.
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+public final class LocalExpirableLockRegistry implements ExpirableLockRegistry, ITask {
+
+    private static final AtomicInteger TASK_SEQUENCE = new AtomicInteger();
+
+    private final ConcurrentMap<Object, KeyLock> locks = new ConcurrentHashMap<Object, KeyLock>();
+
+    private final long expireUnusedOlderThanTime;
+
+    private final String taskName;
+
+    /**
+     * Constructs a LocalExpirableLockRegistry which expires locks unused for
+     * {@link #DEFAULT_EXPIRE_UNUSED_OLDER_THEN_TIME}.
+     */
+    public LocalExpirableLockRegistry() {
+        this(DEFAULT_EXPIRE_UNUSED_OLDER_THEN_TIME);
+    }
+
+    /**
+     * Constructs a LocalExpirableLockRegistry and schedules the expiry task, which runs every
+     * {@link ITask#UPDATE_PERIOD} or every expireUnusedOlderThanTime if that is shorter.
+     * @param expireUnusedOlderThanTime the time in milliseconds after which an unused lock is removed.
+     */
+    public LocalExpirableLockRegistry(final long expireUnusedOlderThanTime) {
+        Assert.isTrue(expireUnusedOlderThanTime > 0, "'expireUnusedOlderThanTime' must be greater than 0");
+        this.expireUnusedOlderThanTime = expireUnusedOlderThanTime;
+        this.taskName = LocalExpirableLockRegistry.class.getSimpleName() + "-" + TASK_SEQUENCE.incrementAndGet();
+        TaskManger.getInstance().addTask(this, this.taskName, Math.min(expireUnusedOlderThanTime, UPDATE_PERIOD),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Lock obtain(final Object lockKey) {
+        Assert.notNull(lockKey, "'lockKey' must not be null");
+        KeyLock lock = this.locks.computeIfAbsent(lockKey, KeyLock::new);
+        lock.touch();
+        return lock;
+    }
+
+    /**
+     * Obtains one lock over the locks of all the keys, acquired in ascending order of the keys' hash codes.
+     * The order does not depend on the lock instances, which are replaced after expiry.
+     * @param lockKeys the objects with which the locks are associated.
+     */
+    @Override
+    public Lock obtainAll(final Collection<?> lockKeys) {
+        Assert.notEmpty(lockKeys, "'lockKeys' must not be empty");
+        Set<Object> distinct = new LinkedHashSet<Object>(lockKeys);
+        List<Lock> keyLocks = new ArrayList<Lock>(distinct.size());
+        int[] hashes = new int[distinct.size()];
+        for (Object lockKey : distinct) {
+            hashes[keyLocks.size()] = lockKey.hashCode();
+            keyLocks.add(obtain(lockKey));
+        }
+        return CompositeLock.orderedByHash(keyLocks, hashes);
+    }
+
+    @Override
+    public long getExpireUnusedOlderThanTime() {
+        return this.expireUnusedOlderThanTime;
+    }
+
+    @Override
+    public void expireUnusedOlderThan(final long age) {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<Object, KeyLock> entry : this.locks.entrySet()) {
+            KeyLock lock = entry.getValue();
+            if (now - lock.lastAcquired > age) {
+                lock.tryExpire(now - age);
+            }
+        }
+    }
+
+    /**
+     * Removes aged locks, invoked periodically by {@link TaskManger}.
+     */
+    @Override
+    public void execute() {
+        expireUnusedOlderThan(this.expireUnusedOlderThanTime);
+    }
+
+    /**
+     * Cancels the expiry task; locks already obtained remain usable.
+     */
+    public void destroy() {
+        TaskManger.getInstance().cancelTask(this.taskName);
+    }
+
+    /**
+     * @return the number of locks currently registered.
+     */
+    public int size() {
+        return this.locks.size();
+    }
+
+    /**
+     * The per key lock. Once removed from the registry an instance is never locked again: a thread that acquired
+     * it after removal releases it and retries with the lock currently registered for the key.
+     */
+    private final class KeyLock implements Lock {
+
+        private final Object lockKey;
+
+        private final ReentrantLock delegate = new ReentrantLock();
+
+        private volatile long lastAcquired = System.currentTimeMillis();
+
+        /** Written only while holding delegate. */
+        private volatile boolean removed;
+
+        /** Set once a condition has been created on delegate; such a lock is never removed. */
+        private volatile boolean pinned;
+
+        KeyLock(final Object lockKey) {
+            this.lockKey = lockKey;
+        }
+
+        void touch() {
+            this.lastAcquired = System.currentTimeMillis();
+        }
+
+        void tryExpire(final long olderThan) {
+            if (!this.delegate.tryLock()) {
+                return;
+            }
+            try {
+                if (this.lastAcquired < olderThan && this.delegate.getHoldCount() == 1
+                        && !this.delegate.hasQueuedThreads()) {
+                    // write removed before reading pinned, newCondition does the opposite, so one sees the other
+                    this.removed = true;
+                    if (this.pinned) {
+                        this.removed = false;
+                        return;
+                    }
+                    LocalExpirableLockRegistry.this.locks.remove(this.lockKey, this);
+                }
+            } finally {
+                this.delegate.unlock();
+            }
+        }
+
+        private KeyLock current() {
+            return LocalExpirableLockRegistry.this.locks.computeIfAbsent(this.lockKey, KeyLock::new);
+        }
+
+        @Override
+        public void lock() {
+            KeyLock lock = this;
+            while (true) {
+                lock.delegate.lock();
+                if (!lock.removed) {
+                    lock.touch();
+                    return;
+                }
+                lock.delegate.unlock();
+                lock = current();
+            }
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            KeyLock lock = this;
+            while (true) {
+                lock.delegate.lockInterruptibly();
+                if (!lock.removed) {
+                    lock.touch();
+                    return;
+                }
+                lock.delegate.unlock();
+                lock = current();
+            }
+        }
+
+        @Override
+        public boolean tryLock() {
+            KeyLock lock = this;
+            while (lock.delegate.tryLock()) {
+                if (!lock.removed) {
+                    lock.touch();
+                    return true;
+                }
+                lock.delegate.unlock();
+                lock = current();
+            }
+            return false;
+        }
+
+        @Override
+        public boolean tryLock(final long time, final TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(time);
+            KeyLock lock = this;
+            while (lock.delegate.tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                if (!lock.removed) {
+                    lock.touch();
+                    return true;
+                }
+                lock.delegate.unlock();
+                lock = current();
+            }
+            return false;
+        }
+
+        @Override
+        public void unlock() {
+            if (this.removed) {
+                // a lock acquired through this instance is the one registered at that time
+                unlockCurrent();
+                return;
+            }
+            this.delegate.unlock();
+        }
+
+        private void unlockCurrent() {
+            KeyLock lock = LocalExpirableLockRegistry.this.locks.get(this.lockKey);
+            if (lock == null || !lock.delegate.isHeldByCurrentThread()) {
+                throw new IllegalMonitorStateException("lock for [" + this.lockKey + "] is not held by current thread");
+            }
+            lock.delegate.unlock();
+        }
+
+        /**
+         * Creates the condition on the lock currently registered for the key, which is the one {@link #lock()}
+         * acquires, and pins that lock so it is never expired.
+         */
+        @Override
+        public Condition newCondition() {
+            KeyLock lock = this;
+            while (true) {
+                lock.pinned = true;
+                if (!lock.removed) {
+                    return lock.delegate.newCondition();
+                }
+                lock = current();
+            }
+        }
+    }
+}
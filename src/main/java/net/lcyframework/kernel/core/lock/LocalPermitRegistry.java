@@ -0,0 +1,392 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.core.lock;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.util.Assert;
+
+import net.lcyframework.kernel.core.metrics.LatencyHistogram;
+import net.lcyframework.kernel.core.task.ITask;
+import net.lcyframework.kernel.core.task.TaskManger;
+
+/**
+ * A {@link PermitRegistry} which lazily creates a {@link Semaphore} with the same number of permits for every key.
+ * Semaphores are kept in a {@link ConcurrentMap} together with the time they were last acquired, and semaphores
+ * whose permits are all available and that have not been acquired for 'expireUnusedOlderThanTime' are removed by a
+ * background {@link ITask} scheduled with {@link TaskManger}, like {@link LocalExpirableLockRegistry}.
+ * Expiry takes all permits of a semaphore before marking it removed; a thread which acquires permits of a removed
+ * semaphore gives them back and acquires from the semaphore currently registered for the key, and releases through
+ * a removed semaphore go to the current one, so the limit per key holds across eviction.
+ * Acquisitions, contended acquisitions, rejected tryAcquire calls and wait times are recorded in {@link PermitStats}.
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+public final class LocalPermitRegistry implements PermitRegistry, ITask {
+
+    private static final AtomicInteger TASK_SEQUENCE = new AtomicInteger();
+
+    private static final double P50 = 50D;
+    private static final double P99 = 99D;
+
+    private final ConcurrentMap<Object, KeyPermits> semaphores = new ConcurrentHashMap<Object, KeyPermits>();
+
+    private final int permits;
+
+    private final boolean fair;
+
+    private final long expireUnusedOlderThanTime;
+
+    private final String taskName;
+
+    private final LongAdder acquireCount = new LongAdder();
+
+    private final LongAdder contendedCount = new LongAdder();
+
+    private final LongAdder rejectedCount = new LongAdder();
+
+    private final LatencyHistogram waitHistogram = new LatencyHistogram();
+
+    /**
+     * Constructs a non-fair LocalPermitRegistry which expires semaphores unused for
+     * {@link ExpirableLockRegistry#DEFAULT_EXPIRE_UNUSED_OLDER_THEN_TIME}.
+     * @param permits the number of permits of every key.
+     */
+    public LocalPermitRegistry(final int permits) {
+        this(permits, false, ExpirableLockRegistry.DEFAULT_EXPIRE_UNUSED_OLDER_THEN_TIME);
+    }
+
+    /**
+     * Constructs a LocalPermitRegistry and schedules the expiry task, which runs every {@link ITask#UPDATE_PERIOD}
+     * or every expireUnusedOlderThanTime if that is shorter.
+     * @param permits the number of permits of every key.
+     * @param fair true if the semaphores grant permits first-in first-out under contention.
+     * @param expireUnusedOlderThanTime the time in milliseconds after which an unused semaphore is removed.
+     */
+    public LocalPermitRegistry(final int permits, final boolean fair, final long expireUnusedOlderThanTime) {
+        Assert.isTrue(permits > 0, "'permits' must be greater than 0");
+        Assert.isTrue(expireUnusedOlderThanTime > 0, "'expireUnusedOlderThanTime' must be greater than 0");
+        this.permits = permits;
+        this.fair = fair;
+        this.expireUnusedOlderThanTime = expireUnusedOlderThanTime;
+        this.taskName = LocalPermitRegistry.class.getSimpleName() + "-" + TASK_SEQUENCE.incrementAndGet();
+        TaskManger.getInstance().addTask(this, this.taskName, Math.min(expireUnusedOlderThanTime, UPDATE_PERIOD),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Semaphore obtain(final Object permitKey) {
+        Assert.notNull(permitKey, "'permitKey' must not be null");
+        return current(permitKey);
+    }
+
+    @Override
+    public int getPermits() {
+        return this.permits;
+    }
+
+    /**
+     * @return true if the semaphores are fair.
+     */
+    public boolean isFair() {
+        return this.fair;
+    }
+
+    @Override
+    public void expireUnusedOlderThan(final long age) {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<Object, KeyPermits> entry : this.semaphores.entrySet()) {
+            KeyPermits semaphore = entry.getValue();
+            if (now - semaphore.lastAcquired > age) {
+                semaphore.tryExpire(now - age);
+            }
+        }
+    }
+
+    /**
+     * Removes aged semaphores, invoked periodically by {@link TaskManger}.
+     */
+    @Override
+    public void execute() {
+        expireUnusedOlderThan(this.expireUnusedOlderThanTime);
+    }
+
+    /**
+     * Cancels the expiry task; semaphores already obtained remain usable.
+     */
+    public void destroy() {
+        TaskManger.getInstance().cancelTask(this.taskName);
+    }
+
+    /**
+     * @return the number of semaphores currently registered.
+     */
+    public int size() {
+        return this.semaphores.size();
+    }
+
+    /**
+     * @param permitKey The object with which the semaphore is associated.
+     * @return the number of permits of the key currently acquired, 0 if the key has no semaphore.
+     */
+    public int getOccupancy(final Object permitKey) {
+        KeyPermits semaphore = this.semaphores.get(permitKey);
+        return semaphore == null ? 0 : Math.max(0, this.permits - semaphore.availablePermits());
+    }
+
+    /**
+     * @return a snapshot of the registry statistics.
+     */
+    public PermitStats getStats() {
+        PermitStats stats = new PermitStats();
+        stats.setPermits(this.permits);
+        long inUse = 0;
+        int keyCount = 0;
+        int saturated = 0;
+        for (KeyPermits semaphore : this.semaphores.values()) {
+            int occupancy = Math.max(0, this.permits - semaphore.availablePermits());
+            inUse += occupancy;
+            keyCount++;
+            if (occupancy == this.permits) {
+                saturated++;
+            }
+        }
+        stats.setKeyCount(keyCount);
+        stats.setInUse(inUse);
+        stats.setSaturatedKeyCount(saturated);
+        stats.setAcquireCount(this.acquireCount.sum());
+        stats.setContendedCount(this.contendedCount.sum());
+        stats.setRejectedCount(this.rejectedCount.sum());
+        stats.setWaitP50(this.waitHistogram.getValueAtPercentile(P50));
+        stats.setWaitP99(this.waitHistogram.getValueAtPercentile(P99));
+        stats.setWaitMax(this.waitHistogram.getMax());
+        return stats;
+    }
+
+    /**
+     * Clears the acquisition counters and the wait histogram.
+     */
+    public void reset() {
+        this.acquireCount.reset();
+        this.contendedCount.reset();
+        this.rejectedCount.reset();
+        this.waitHistogram.reset();
+    }
+
+    private KeyPermits current(final Object permitKey) {
+        return this.semaphores.computeIfAbsent(permitKey, KeyPermits::new);
+    }
+
+    private void recordAcquired(final long waitStart) {
+        this.acquireCount.increment();
+        if (waitStart != 0L) {
+            this.waitHistogram.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - waitStart));
+        }
+    }
+
+    /**
+     * The per key semaphore. Once removed from the registry an instance keeps no permits: a thread that acquired
+     * permits after removal gives them back and acquires from the semaphore currently registered for the key.
+     */
+    private final class KeyPermits extends Semaphore {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Object permitKey;
+
+        private volatile long lastAcquired = System.currentTimeMillis();
+
+        /** Written only while holding all permits. */
+        private volatile boolean removed;
+
+        KeyPermits(final Object permitKey) {
+            super(LocalPermitRegistry.this.permits, LocalPermitRegistry.this.fair);
+            this.permitKey = permitKey;
+        }
+
+        void tryExpire(final long olderThan) {
+            int all = LocalPermitRegistry.this.permits;
+            if (!super.tryAcquire(all)) {
+                return;
+            }
+            try {
+                if (this.lastAcquired < olderThan && super.availablePermits() == 0 && !super.hasQueuedThreads()) {
+                    this.removed = true;
+                    LocalPermitRegistry.this.semaphores.remove(this.permitKey, this);
+                }
+            } finally {
+                super.release(all);
+            }
+        }
+
+        /**
+         * @return this if the permits just acquired are valid, otherwise the semaphore to retry with.
+         */
+        private KeyPermits validate(final int count) {
+            if (!this.removed) {
+                this.lastAcquired = System.currentTimeMillis();
+                return this;
+            }
+            super.release(count);
+            return current(this.permitKey);
+        }
+
+        private boolean fastAcquire(final int count) {
+            // a fair semaphore hands permits to queued threads first
+            if ((!LocalPermitRegistry.this.fair || !super.hasQueuedThreads()) && super.tryAcquire(count)) {
+                return true;
+            }
+            LocalPermitRegistry.this.contendedCount.increment();
+            return false;
+        }
+
+        @Override
+        public void acquire() throws InterruptedException {
+            acquire(1);
+        }
+
+        @Override
+        public void acquire(final int count) throws InterruptedException {
+            long waitStart = 0L;
+            KeyPermits semaphore = this;
+            while (true) {
+                if (!semaphore.fastAcquire(count)) {
+                    waitStart = waitStart == 0L ? System.nanoTime() : waitStart;
+                    semaphore.acquireDirectly(count);
+                }
+                KeyPermits next = semaphore.validate(count);
+                if (next == semaphore) {
+                    recordAcquired(waitStart);
+                    return;
+                }
+                semaphore = next;
+            }
+        }
+
+        @Override
+        public void acquireUninterruptibly() {
+            acquireUninterruptibly(1);
+        }
+
+        @Override
+        public void acquireUninterruptibly(final int count) {
+            long waitStart = 0L;
+            KeyPermits semaphore = this;
+            while (true) {
+                if (!semaphore.fastAcquire(count)) {
+                    waitStart = waitStart == 0L ? System.nanoTime() : waitStart;
+                    semaphore.acquireUninterruptiblyDirectly(count);
+                }
+                KeyPermits next = semaphore.validate(count);
+                if (next == semaphore) {
+                    recordAcquired(waitStart);
+                    return;
+                }
+                semaphore = next;
+            }
+        }
+
+        @Override
+        public boolean tryAcquire() {
+            return tryAcquire(1);
+        }
+
+        @Override
+        public boolean tryAcquire(final int count) {
+            KeyPermits semaphore = this;
+            while (semaphore.tryAcquireDirectly(count)) {
+                KeyPermits next = semaphore.validate(count);
+                if (next == semaphore) {
+                    recordAcquired(0L);
+                    return true;
+                }
+                semaphore = next;
+            }
+            LocalPermitRegistry.this.rejectedCount.increment();
+            return false;
+        }
+
+        @Override
+        public boolean tryAcquire(final long timeout, final TimeUnit unit) throws InterruptedException {
+            return tryAcquire(1, timeout, unit);
+        }
+
+        @Override
+        public boolean tryAcquire(final int count, final long timeout, final TimeUnit unit)
+                throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            long waitStart = 0L;
+            KeyPermits semaphore = this;
+            while (true) {
+                if (!semaphore.fastAcquire(count)) {
+                    waitStart = waitStart == 0L ? System.nanoTime() : waitStart;
+                    if (!semaphore.tryAcquireDirectly(count, deadline - System.nanoTime())) {
+                        LocalPermitRegistry.this.rejectedCount.increment();
+                        return false;
+                    }
+                }
+                KeyPermits next = semaphore.validate(count);
+                if (next == semaphore) {
+                    recordAcquired(waitStart);
+                    return true;
+                }
+                semaphore = next;
+            }
+        }
+
+        @Override
+        public void release() {
+            release(1);
+        }
+
+        @Override
+        public void release(final int count) {
+            if (this.removed) {
+                // permits acquired through this instance belong to the semaphore registered at that time
+                current(this.permitKey).releaseDirectly(count);
+                return;
+            }
+            super.release(count);
+        }
+
+        private void acquireDirectly(final int count) throws InterruptedException {
+            super.acquire(count);
+        }
+
+        private void acquireUninterruptiblyDirectly(final int count) {
+            super.acquireUninterruptibly(count);
+        }
+
+        private boolean tryAcquireDirectly(final int count) {
+            return super.tryAcquire(count);
+        }
+
+        private boolean tryAcquireDirectly(final int count, final long nanos) throws InterruptedException {
+            return super.tryAcquire(count, nanos, TimeUnit.NANOSECONDS);
+        }
+
+        private void releaseDirectly(final int count) {
+            super.release(count);
+        }
+    }
+}
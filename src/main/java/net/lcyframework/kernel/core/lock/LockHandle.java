@@ -0,0 +1,44 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.core.lock;
+
+/**
+ * A lock granted by an {@link AsyncLockRegistry}. It is not bound to a thread, the continuation that received it may
+ * release it from any thread; releasing more than once has no effect.
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+public interface LockHandle extends AutoCloseable {
+
+    /**
+     * @return the key the lock was granted for.
+     */
+    Object getLockKey();
+
+    /**
+     * Releases the lock, handing it to the next waiter of the key if any.
+     */
+    void release();
+
+    /**
+     * Same as {@link #release()}, for try-with-resources.
+     */
+    @Override
+    default void close() {
+        release();
+    }
+}
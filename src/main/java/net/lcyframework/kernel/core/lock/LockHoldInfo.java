@@ -0,0 +1,43 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.core.lock;
+
+import lombok.Data;
+
+/**
+ * Snapshot of a lock held through a {@link LockWatchdog}.
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+@Data
+public class LockHoldInfo {
+
+    private Object lockKey;
+
+    private String ownerThreadName;
+
+    private long ownerThreadId;
+
+    /** Milliseconds since the owner acquired the lock. */
+    private long heldMillis;
+
+    /** Threads waiting for the lock through the watchdog. */
+    private int waiterCount;
+
+    /** Where the owner acquired the lock, null unless acquire stacks are captured. */
+    private StackTraceElement[] acquireStack;
+}
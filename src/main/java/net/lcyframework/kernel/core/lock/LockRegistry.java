@@ -16,8 +16,15 @@
 
 package net.lcyframework.kernel.core.lock;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.locks.Lock;
 
+import org.springframework.util.Assert;
+
 /**
  * Strategy for maintaining a registry of shared locks.
  * @author Jimmy Li
@@ -33,4 +40,29 @@ public interface LockRegistry {
      */
     Lock obtain(Object lockKey);
 
+    /**
+     * Obtains one lock over the locks of all the keys, acquired in a global order so that threads locking
+     * overlapping sets of keys can not deadlock, provided they all use this method. Keys sharing a lock are locked
+     * once. The default orders the distinct locks by identity hash code; registries whose locks can be replaced or
+     * live outside the JVM override it with an order of their own.
+     * @param lockKeys The objects with which the locks are associated.
+     * @return The composite lock, see {@link CompositeLock}.
+     */
+    default Lock obtainAll(final Collection<?> lockKeys) {
+        Assert.notEmpty(lockKeys, "'lockKeys' must not be empty");
+        Map<Lock, Boolean> distinct = new IdentityHashMap<Lock, Boolean>();
+        List<Lock> locks = new ArrayList<Lock>(lockKeys.size());
+        for (Object lockKey : lockKeys) {
+            Lock lock = obtain(lockKey);
+            if (distinct.put(lock, Boolean.TRUE) == null) {
+                locks.add(lock);
+            }
+        }
+        int[] hashes = new int[locks.size()];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = System.identityHashCode(locks.get(i));
+        }
+        return CompositeLock.orderedByHash(locks, hashes);
+    }
+
 }
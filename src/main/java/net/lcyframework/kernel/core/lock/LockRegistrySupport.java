@@ -0,0 +1,72 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.core.lock;
+
+import org.springframework.util.Assert;
+
+/**
+ * Helpers shared by the masked hashcode registries.
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+final class LockRegistrySupport {
+
+    /** The default mask, 256 locks. */
+    static final int MASK_0XFF = 0xFF;
+
+    private static final int BITS_LENGTH = 32;
+
+    private LockRegistrySupport() { }
+
+    /**
+     * Checks that the mask has a value Math.pow(2, n) - 1 where n is 0 to 31.
+     * @param mask The bit mask.
+     */
+    static void checkMask(final int mask) {
+        String bits = Integer.toBinaryString(mask);
+        Assert.isTrue(bits.length() < BITS_LENGTH && (mask == 0 || bits.lastIndexOf('0') < bits.indexOf('1')),
+                "Mask must be a power of 2 - 1");
+    }
+
+    /**
+     * Mixes the lockKey's hashCode with the murmur3 finalizer, so keys differing only in high bits or by a
+     * constant stride still spread over all stripes.
+     * @param lockKey the object used to derive the locks index.
+     * @return the mixed hash.
+     */
+    static int spread(final Object lockKey) {
+        Assert.notNull(lockKey, "'lockKey' must not be null");
+        int h = lockKey.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * Masks the lockKey's hashCode to an index of the locks table.
+     * @param lockKey the object used to derive the locks index.
+     * @param mask The bit mask.
+     * @return the index.
+     */
+    static int indexFor(final Object lockKey, final int mask) {
+        Assert.notNull(lockKey, "'lockKey' must not be null");
+        return lockKey.hashCode() & mask;
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.core.lock;
+
+import lombok.Data;
+
+/**
+ * Snapshot of the contention statistics of one stripe of an {@link InstrumentedLockRegistry}, times in microseconds.
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+@Data
+public class LockStripeStats {
+
+    private int stripe;
+
+    /** Successful acquisitions. */
+    private long acquireCount;
+
+    /** Acquisitions that found the lock held by another thread. */
+    private long contendedCount;
+
+    /** Timed tryLock calls that gave up, and untimed tryLock calls that failed. */
+    private long timeoutCount;
+
+    /** Wait times of contended acquisitions. */
+    private long waitP50;
+
+    private long waitP99;
+
+    private long waitMax;
+
+    /** Sampled hold times. */
+    private long holdP50;
+
+    private long holdP99;
+
+    private long holdMax;
+}
@@ -0,0 +1,424 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.core.lock;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
+
+import org.springframework.util.Assert;
+
+import lombok.extern.slf4j.Slf4j;
+import net.lcyframework.kernel.core.task.ITask;
+import net.lcyframework.kernel.core.task.TaskManger;
+
+/**
+ * A {@link LockRegistry} decorator tracking the owner and the waiters of every lock obtained through it, checked
+ * periodically by an {@link ITask} scheduled with {@link TaskManger}.
+ * <ul>
+ * <li>Holds and waits are tracked per identity of the underlying lock, given by a function of the lockKey: by default
+ * the stripe lock for a {@link DefaultLockRegistry}, so keys sharing a stripe share a hold, and the lockKey itself
+ * for any other registry, which is right for registries with a lock per key such as
+ * {@link LocalExpirableLockRegistry} or a ZooKeeper one, whose lock instances change after expiry. For other striped
+ * registries such as {@link AdaptiveLockRegistry} or a decorated {@link DefaultLockRegistry}, keys sharing a stripe
+ * are tracked apart, so a cycle through a shared stripe is not detected; their lock instances must not be used as
+ * identity, as they differ per obtain. A hold records the owner thread, the acquire time and optionally the stack
+ * where it was acquired.</li>
+ * <li>Holds longer than 'holdThreshold' are logged with the stack of the owner thread at that moment, taken from
+ * that thread alone without a full thread dump; every hold is dumped once and then only counted.</li>
+ * <li>Threads blocked in lock, lockInterruptibly or a timed tryLock are registered as waiting, and cycles of
+ * waiting threads each waiting for a lock owned by the next are logged as deadlocks.</li>
+ * </ul>
+ * The snapshots are read without stopping the lock users, so a reported chain may have just resolved; a deadlock
+ * is only logged if it is seen on two consecutive checks. Locks of {@link #obtainAll(Collection)} are tracked as a
+ * whole, their waits take part in no cycle. A thread awaiting a condition of a lock is still reported as its owner.
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+@Slf4j
+public final class LockWatchdog implements LockRegistry, ITask {
+
+    private static final AtomicInteger TASK_SEQUENCE = new AtomicInteger();
+
+    private static final long DEFAULT_HOLD_THRESHOLD = 30 * 1000L;
+
+    private final LockRegistry delegate;
+
+    private final long holdThreshold;
+
+    private final boolean captureAcquireStack;
+
+    private final String taskName;
+
+    private final Function<Object, Object> lockIdentity;
+
+    /** Keyed by the identity of the underlying lock. */
+    private final ConcurrentMap<Object, Hold> holds = new ConcurrentHashMap<Object, Hold>();
+
+    private final ConcurrentMap<Thread, Wait> waits = new ConcurrentHashMap<Thread, Wait>();
+
+    /** Deadlocks seen by the previous check, keyed by the ids of their threads. */
+    private Set<Set<Long>> suspectedDeadlocks = new HashSet<Set<Long>>();
+
+    /**
+     * Constructs a LockWatchdog flagging holds longer than 30 seconds, without capturing acquire stacks.
+     * @param delegate the registry to watch.
+     */
+    public LockWatchdog(final LockRegistry delegate) {
+        this(delegate, DEFAULT_HOLD_THRESHOLD, false);
+    }
+
+    /**
+     * Constructs a LockWatchdog and schedules the check, which runs every holdThreshold or every
+     * {@link ITask#UPDATE_PERIOD} if that is shorter.
+     * @param delegate the registry to watch.
+     * @param holdThreshold the time in milliseconds after which a hold is flagged.
+     * @param captureAcquireStack true to record the stack of every first acquisition, which costs a stack walk
+     * per acquisition.
+     */
+    public LockWatchdog(final LockRegistry delegate, final long holdThreshold, final boolean captureAcquireStack) {
+        this(delegate, holdThreshold, captureAcquireStack, defaultLockIdentity(delegate));
+    }
+
+    /**
+     * Constructs a LockWatchdog and schedules the check, which runs every holdThreshold or every
+     * {@link ITask#UPDATE_PERIOD} if that is shorter.
+     * @param delegate the registry to watch.
+     * @param holdThreshold the time in milliseconds after which a hold is flagged.
+     * @param captureAcquireStack true to record the stack of every first acquisition, which costs a stack walk
+     * per acquisition.
+     * @param lockIdentity maps a lockKey to an object equal for all keys sharing the same underlying lock of the
+     * delegate, such as a stripe index.
+     */
+    public LockWatchdog(final LockRegistry delegate, final long holdThreshold, final boolean captureAcquireStack,
+            final Function<Object, Object> lockIdentity) {
+        Assert.notNull(delegate, "'delegate' must not be null");
+        Assert.isTrue(holdThreshold > 0, "'holdThreshold' must be greater than 0");
+        Assert.notNull(lockIdentity, "'lockIdentity' must not be null");
+        this.delegate = delegate;
+        this.holdThreshold = holdThreshold;
+        this.captureAcquireStack = captureAcquireStack;
+        this.lockIdentity = lockIdentity;
+        this.taskName = LockWatchdog.class.getSimpleName() + "-" + TASK_SEQUENCE.incrementAndGet();
+        TaskManger.getInstance().addTask(this, this.taskName, Math.min(holdThreshold, UPDATE_PERIOD),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Lock obtain(final Object lockKey) {
+        return new WatchedLock(lockKey, this.lockIdentity.apply(lockKey), this.delegate.obtain(lockKey));
+    }
+
+    /**
+     * Obtains the composite lock of the delegate, so its ordering is kept; it is tracked as one lock identified by
+     * its keys.
+     * @param lockKeys the objects with which the locks are associated.
+     */
+    @Override
+    public Lock obtainAll(final Collection<?> lockKeys) {
+        return new WatchedLock(lockKeys, new ArrayList<Object>(lockKeys), this.delegate.obtainAll(lockKeys));
+    }
+
+    /**
+     * Checks long holds and deadlocks, invoked periodically by {@link TaskManger}.
+     */
+    @Override
+    public void execute() {
+        try {
+            for (Hold hold : this.holds.values()) {
+                if (hold.heldMillis() > this.holdThreshold && !hold.reported) {
+                    hold.reported = true;
+                    log.warn("lock [{}] held by thread [{}] for {}ms, waiters: {}{}", hold.lockKey,
+                            hold.owner.getName(), hold.heldMillis(), waiterCount(hold.identity),
+                            dump(hold.owner.getStackTrace(), hold.acquireStack));
+                }
+            }
+            Set<Set<Long>> seen = new HashSet<Set<Long>>();
+            for (List<LockHoldInfo> cycle : findDeadlocks()) {
+                Set<Long> threadIds = new HashSet<Long>();
+                StringBuilder chain = new StringBuilder();
+                for (LockHoldInfo info : cycle) {
+                    threadIds.add(info.getOwnerThreadId());
+                    chain.append("\n  thread [").append(info.getOwnerThreadName()).append("] holds [")
+                            .append(info.getLockKey()).append("] for ").append(info.getHeldMillis()).append("ms");
+                }
+                if (seen.add(threadIds) && this.suspectedDeadlocks.contains(threadIds)) {
+                    log.error("deadlock between registry locks, each thread waits for the lock held by the next:{}",
+                            chain);
+                }
+            }
+            this.suspectedDeadlocks = seen;
+        } catch (final RuntimeException e) {
+            log.error("lock watchdog check failed", e);
+        }
+    }
+
+    /**
+     * Cancels the check task; locks already obtained remain usable and tracked.
+     */
+    public void destroy() {
+        TaskManger.getInstance().cancelTask(this.taskName);
+    }
+
+    /**
+     * @return the locks currently held, longest hold first.
+     */
+    public List<LockHoldInfo> getHeldLocks() {
+        List<LockHoldInfo> infos = new ArrayList<LockHoldInfo>();
+        for (Hold hold : this.holds.values()) {
+            infos.add(hold.toInfo());
+        }
+        infos.sort(Comparator.comparingLong(LockHoldInfo::getHeldMillis).reversed());
+        return infos;
+    }
+
+    /**
+     * Finds cycles of threads each waiting for a lock held by the next one.
+     * @return the holds of every cycle found, in wait order, each cycle once.
+     */
+    public List<List<LockHoldInfo>> findDeadlocks() {
+        List<List<LockHoldInfo>> cycles = new ArrayList<List<LockHoldInfo>>();
+        Set<Thread> visited = new HashSet<Thread>();
+        for (Thread start : this.waits.keySet()) {
+            if (visited.contains(start)) {
+                continue;
+            }
+            List<Thread> path = new ArrayList<Thread>();
+            List<Hold> pathHolds = new ArrayList<Hold>();
+            Thread thread = start;
+            while (thread != null && !visited.contains(thread)) {
+                visited.add(thread);
+                path.add(thread);
+                Wait wait = this.waits.get(thread);
+                Hold hold = wait == null ? null : this.holds.get(wait.identity);
+                if (hold == null) {
+                    break;
+                }
+                pathHolds.add(hold);
+                thread = hold.owner;
+            }
+            int cycleStart = thread == null ? -1 : path.indexOf(thread);
+            if (cycleStart >= 0 && pathHolds.size() == path.size()) {
+                List<LockHoldInfo> cycle = new ArrayList<LockHoldInfo>();
+                for (Hold hold : pathHolds.subList(cycleStart, pathHolds.size())) {
+                    cycle.add(hold.toInfo());
+                }
+                cycles.add(cycle);
+            }
+        }
+        return cycles;
+    }
+
+    private static Function<Object, Object> defaultLockIdentity(final LockRegistry delegate) {
+        if (delegate instanceof DefaultLockRegistry) {
+            // the same stripe lock is returned for every key of the stripe
+            return delegate::obtain;
+        }
+        return Function.identity();
+    }
+
+    private int waiterCount(final Object identity) {
+        int count = 0;
+        for (Wait wait : this.waits.values()) {
+            if (wait.identity.equals(identity)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static String dump(final StackTraceElement[] ownerStack, final StackTraceElement[] acquireStack) {
+        StringBuilder builder = new StringBuilder("\nowner stack:");
+        for (StackTraceElement element : ownerStack) {
+            builder.append("\n\tat ").append(element);
+        }
+        if (acquireStack != null) {
+            builder.append("\nacquired at:");
+            for (StackTraceElement element : acquireStack) {
+                builder.append("\n\tat ").append(element);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * The current hold of a lock, written only by the owner thread.
+     */
+    private final class Hold {
+
+        private final Object identity;
+
+        private final Object lockKey;
+
+        private final Thread owner;
+
+        private final long acquiredAt = System.currentTimeMillis();
+
+        private final StackTraceElement[] acquireStack;
+
+        private int depth = 1;
+
+        private volatile boolean reported;
+
+        Hold(final Object identity, final Object lockKey, final Thread owner) {
+            this.identity = identity;
+            this.lockKey = lockKey;
+            this.owner = owner;
+            this.acquireStack = LockWatchdog.this.captureAcquireStack ? new Throwable().getStackTrace() : null;
+        }
+
+        long heldMillis() {
+            return System.currentTimeMillis() - this.acquiredAt;
+        }
+
+        LockHoldInfo toInfo() {
+            LockHoldInfo info = new LockHoldInfo();
+            info.setLockKey(this.lockKey);
+            info.setOwnerThreadName(this.owner.getName());
+            info.setOwnerThreadId(this.owner.getId());
+            info.setHeldMillis(heldMillis());
+            info.setWaiterCount(waiterCount(this.identity));
+            info.setAcquireStack(this.acquireStack);
+            return info;
+        }
+    }
+
+    /**
+     * A thread blocked on a lock.
+     */
+    private static final class Wait {
+
+        private final Object identity;
+
+        Wait(final Object identity) {
+            this.identity = identity;
+        }
+    }
+
+    /**
+     * The lock returned to callers, registering waits and holds around the delegate lock.
+     */
+    private final class WatchedLock implements Lock {
+
+        private final Object lockKey;
+
+        private final Object identity;
+
+        private final Lock lock;
+
+        WatchedLock(final Object lockKey, final Object identity, final Lock lock) {
+            this.lockKey = lockKey;
+            this.identity = identity;
+            this.lock = lock;
+        }
+
+        @Override
+        public void lock() {
+            if (!this.lock.tryLock()) {
+                Thread current = waiting();
+                try {
+                    this.lock.lock();
+                } finally {
+                    LockWatchdog.this.waits.remove(current);
+                }
+            }
+            acquired();
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            if (!this.lock.tryLock()) {
+                Thread current = waiting();
+                try {
+                    this.lock.lockInterruptibly();
+                } finally {
+                    LockWatchdog.this.waits.remove(current);
+                }
+            }
+            acquired();
+        }
+
+        @Override
+        public boolean tryLock() {
+            if (this.lock.tryLock()) {
+                acquired();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean tryLock(final long time, final TimeUnit unit) throws InterruptedException {
+            if (!this.lock.tryLock()) {
+                Thread current = waiting();
+                try {
+                    if (!this.lock.tryLock(time, unit)) {
+                        return false;
+                    }
+                } finally {
+                    LockWatchdog.this.waits.remove(current);
+                }
+            }
+            acquired();
+            return true;
+        }
+
+        @Override
+        public void unlock() {
+            Hold hold = LockWatchdog.this.holds.get(this.identity);
+            if (hold != null && hold.owner == Thread.currentThread() && --hold.depth == 0) {
+                LockWatchdog.this.holds.remove(this.identity, hold);
+                if (hold.reported) {
+                    log.info("lock [{}] released by thread [{}] after {}ms", hold.lockKey, hold.owner.getName(),
+                            hold.heldMillis());
+                }
+            }
+            this.lock.unlock();
+        }
+
+        @Override
+        public Condition newCondition() {
+            return this.lock.newCondition();
+        }
+
+        private Thread waiting() {
+            Thread current = Thread.currentThread();
+            LockWatchdog.this.waits.put(current, new Wait(this.identity));
+            return current;
+        }
+
+        private void acquired() {
+            Thread current = Thread.currentThread();
+            Hold hold = LockWatchdog.this.holds.get(this.identity);
+            if (hold != null && hold.owner == current) {
+                hold.depth++;
+            } else {
+                LockWatchdog.this.holds.put(this.identity, new Hold(this.identity, this.lockKey, current));
+            }
+        }
+    }
+}
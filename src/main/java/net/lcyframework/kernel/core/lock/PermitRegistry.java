@@ -0,0 +1,70 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.core.lock;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Strategy for maintaining a set of per-key {@link Semaphore}s, the counterpart of {@link LockRegistry} for limiting
+ * the number of concurrent holders of a key instead of excluding them, e.g. at most N concurrent exports per tenant.
+ * Every key has the same number of permits.
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+public interface PermitRegistry {
+
+    /**
+     * Obtains the semaphore associated with the parameter object.
+     * @param permitKey The object with which the semaphore is associated.
+     * @return The associated semaphore.
+     */
+    Semaphore obtain(Object permitKey);
+
+    /**
+     * @return the number of permits of every key.
+     */
+    int getPermits();
+
+    /**
+     * Acquires a permit of the key, waiting at most 'timeout'.
+     * @param permitKey The object with which the semaphore is associated.
+     * @param timeout the maximum time to wait for a permit.
+     * @param unit the time unit of the timeout argument.
+     * @return true if a permit was acquired and must be released with {@link #release(Object)}.
+     * @throws InterruptedException if the current thread is interrupted.
+     */
+    default boolean tryAcquire(final Object permitKey, final long timeout, final TimeUnit unit)
+            throws InterruptedException {
+        return obtain(permitKey).tryAcquire(timeout, unit);
+    }
+
+    /**
+     * Releases a permit of the key acquired before.
+     * @param permitKey The object with which the semaphore is associated.
+     */
+    default void release(final Object permitKey) {
+        obtain(permitKey).release();
+    }
+
+    /**
+     * Remove semaphores last acquired more than 'age' ago whose permits are all available.
+     * @param age the time since the semaphores were last acquired.
+     */
+    void expireUnusedOlderThan(long age);
+
+}
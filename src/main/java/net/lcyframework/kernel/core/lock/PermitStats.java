@@ -0,0 +1,56 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.core.lock;
+
+import lombok.Data;
+
+/**
+ * Snapshot of the statistics of a {@link LocalPermitRegistry}, times in microseconds.
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+@Data
+public class PermitStats {
+
+    /** Permits of every key. */
+    private int permits;
+
+    /** Keys currently registered. */
+    private int keyCount;
+
+    /** Permits currently acquired over all keys. */
+    private long inUse;
+
+    /** Keys whose permits are all acquired. */
+    private int saturatedKeyCount;
+
+    /** Successful acquisitions. */
+    private long acquireCount;
+
+    /** Acquisitions that found no permit available. */
+    private long contendedCount;
+
+    /** tryAcquire calls that failed or timed out. */
+    private long rejectedCount;
+
+    /** Wait times of contended acquisitions. */
+    private long waitP50;
+
+    private long waitP99;
+
+    private long waitMax;
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.core.lock;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * A {@link ReadWriteLockRegistry} backed by a masked table of {@link StampedLock} instances, using the same
+ * Masked Hashcode algorithm as {@link DefaultLockRegistry}.
+ * Besides the {@link ReadWriteLock} view returned by {@link #obtain(Object)}, {@link #optimisticRead(Object, Supplier)}
+ * reads without acquiring any lock and only falls back to the read lock when a writer intervened, so readers do
+ * not even write the lock state. StampedLock is not reentrant, a thread holding a lock of a key must not lock
+ * any key of the same stripe again.
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+public final class StampedLockRegistry implements ReadWriteLockRegistry {
+
+    private final StampedLock[] lockTable;
+
+    private final ReadWriteLock[] readWriteLockTable;
+
+    private final int mask;
+
+    /**
+     * Constructs a StampedLockRegistry with the default
+     * mask 0xFF with 256 locks.
+     */
+    public StampedLockRegistry() {
+        this(LockRegistrySupport.MASK_0XFF);
+    }
+
+    /**
+     * Constructs a StampedLockRegistry with the supplied
+     * mask - the mask must have a value Math.pow(2, n) - 1 where n
+     * is 1 to 31, creating a hash of Math.pow(2, n) locks.
+     * @param mask The bit mask.
+     */
+    public StampedLockRegistry(final int mask) {
+        LockRegistrySupport.checkMask(mask);
+        this.mask = mask;
+        int arraySize = this.mask + 1;
+        this.lockTable = new StampedLock[arraySize];
+        this.readWriteLockTable = new ReadWriteLock[arraySize];
+        for (int i = 0; i < arraySize; i++) {
+            this.lockTable[i] = new StampedLock();
+            this.readWriteLockTable[i] = this.lockTable[i].asReadWriteLock();
+        }
+    }
+
+    /**
+     * Obtains the {@link ReadWriteLock} view of the {@link StampedLock} for the lockKey.
+     * @param lockKey the object used to derive the locks index.
+     */
+    @Override
+    public ReadWriteLock obtain(final Object lockKey) {
+        return this.readWriteLockTable[LockRegistrySupport.indexFor(lockKey, this.mask)];
+    }
+
+    /**
+     * Obtains the {@link StampedLock} for the lockKey.
+     * @param lockKey the object used to derive the locks index.
+     * @return The associated lock.
+     */
+    public StampedLock obtainStamped(final Object lockKey) {
+        return this.lockTable[LockRegistrySupport.indexFor(lockKey, this.mask)];
+    }
+
+    /**
+     * Reads under an optimistic stamp, and reads again under the read lock if a write happened meanwhile.
+     * The reader may observe inconsistent state during the optimistic attempt, so it must only read fields
+     * and must not throw or have side effects because of what it reads.
+     * @param lockKey the object used to derive the locks index.
+     * @param reader reads the guarded state.
+     * @param <T> the result type.
+     * @return the value read.
+     */
+    public <T> T optimisticRead(final Object lockKey, final Supplier<T> reader) {
+        StampedLock lock = obtainStamped(lockKey);
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            T value = reader.get();
+            if (lock.validate(stamp)) {
+                return value;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Writes under the write lock of the lockKey.
+     * @param lockKey the object used to derive the locks index.
+     * @param writer updates the guarded state.
+     */
+    public void write(final Object lockKey, final Runnable writer) {
+        StampedLock lock = obtainStamped(lockKey);
+        long stamp = lock.writeLock();
+        try {
+            writer.run();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.core.metrics;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <pre>
+ * 名称: JmxRegistrar
+ * 描述: 向平台MBeanServer注册监控MBean, 注册失败只记录日志, 不影响业务
+ * 同名MBean已存在时先注销再注册, 便于重复初始化(如热部署)
+ * </pre>
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+@Slf4j
+public final class JmxRegistrar {
+
+    /** ObjectName的域 */
+    public static final String DOMAIN = "net.lcyframework";
+
+    private JmxRegistrar() { }
+
+    /**
+     * 注册MBean
+     * @param type ObjectName中的type, 如HttpClient
+     * @param name ObjectName中的name, 可为null
+     * @param mbean MBean或MXBean实现
+     * @return 是否注册成功
+     */
+    public static boolean register(final String type, final String name, final Object mbean) {
+        try {
+            ObjectName objectName = objectName(type, name);
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(mbean, objectName);
+            return true;
+        } catch (final JMException e) {
+            log.warn("register mbean [{}:{}] error:{}", type, name, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 注销MBean
+     * @param type ObjectName中的type
+     * @param name ObjectName中的name, 可为null
+     */
+    public static void unregister(final String type, final String name) {
+        try {
+            ObjectName objectName = objectName(type, name);
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (final JMException e) {
+            log.warn("unregister mbean [{}:{}] error:{}", type, name, e.getMessage());
+        }
+    }
+
+    private static ObjectName objectName(final String type, final String name) throws JMException {
+        StringBuilder sb = new StringBuilder(DOMAIN).append(":type=").append(type);
+        if (name != null) {
+            sb.append(",name=").append(ObjectName.quote(name));
+        }
+        return new ObjectName(sb.toString());
+    }
+}
@@ -23,6 +23,7 @@ import java.net.SocketException;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
 
@@ -69,6 +70,27 @@ public class AbortPolicyWithReport extends ThreadPoolExecutor.AbortPolicy {
         throw new RejectedExecutionException(msg);
     }
 
+    /**
+     * ForkJoinPool拒绝任务时按相同格式记录日志
+     * @param pool 线程池
+     * @param cause 原异常
+     * @return 待抛出的异常
+     */
+    public RejectedExecutionException rejectedExecution(final ForkJoinPool pool,
+            final RejectedExecutionException cause) {
+        String msg = String.format(
+                "Thread pool is EXHAUSTED!"
+                        + " Thread Name: %s, Pool Size: %d (active: %d, running: %d, parallelism: %d),"
+                        + " Task: (queued: %d, submissions: %d, steals: %d),"
+                        + " Executor status:(isShutdown:%s, isTerminated:%s, isTerminating:%s), in %s/%s!",
+                threadName, pool.getPoolSize(), pool.getActiveThreadCount(), pool.getRunningThreadCount(),
+                pool.getParallelism(), pool.getQueuedTaskCount(), pool.getQueuedSubmissionCount(),
+                pool.getStealCount(), pool.isShutdown(), pool.isTerminated(), pool.isTerminating(), getIp(),
+                BaseProperties.getString(DEFAULT_APPLICATION_NAME));
+        log.error(msg);
+        return new RejectedExecutionException(msg, cause);
+    }
+
     private String getIp() {
         if (ipList != null) {
             return ipList.get(0);
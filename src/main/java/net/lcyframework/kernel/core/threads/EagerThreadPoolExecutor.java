@@ -0,0 +1,96 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.core.threads;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <pre>
+ * 名称: EagerThreadPoolExecutor
+ * 描述: 先创建线程再排队的线程池
+ * 与ThreadPoolExecutor先填满队列再创建非核心线程相反, 配合{@link TaskQueue}在线程数达到最大线程数前优先创建线程,
+ * 达到最大线程数后才排队, 被拒绝时先重试入队一次, 队列仍满才交给拒绝策略, 适合延迟敏感的IO任务
+ * </pre>
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+public class EagerThreadPoolExecutor extends MonitoredThreadPoolExecutor {
+
+    /** 已提交未执行完的任务数 */
+    private final AtomicInteger submittedTaskCount = new AtomicInteger();
+
+    /**
+     * 构造方法
+     * @param name 线程池名称
+     * @param corePoolSize 核心线程数
+     * @param maximumPoolSize 最大线程数
+     * @param keepAliveTime 空闲线程存活时间
+     * @param unit 时间单位
+     * @param workQueue 任务队列
+     * @param threadFactory 线程工厂
+     * @param handler 拒绝策略
+     */
+    public EagerThreadPoolExecutor(final String name, final int corePoolSize, final int maximumPoolSize,
+            final long keepAliveTime, final TimeUnit unit, final TaskQueue workQueue, final ThreadFactory threadFactory,
+            final RejectedExecutionHandler handler) {
+        super(name, corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, threadFactory, handler);
+        workQueue.setExecutor(this);
+    }
+
+    /**
+     * 已提交未执行完的任务数
+     * @return 任务数
+     */
+    public int getSubmittedTaskCount() {
+        return submittedTaskCount.get();
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        if (command == null) {
+            throw new NullPointerException();
+        }
+        submittedTaskCount.incrementAndGet();
+        super.execute(command);
+    }
+
+    @Override
+    protected void afterTask(final Runnable task, final Throwable t) {
+        submittedTaskCount.decrementAndGet();
+    }
+
+    @Override
+    public boolean remove(final Runnable task) {
+        boolean removed = super.remove(task);
+        if (removed) {
+            submittedTaskCount.decrementAndGet();
+        }
+        return removed;
+    }
+
+    @Override
+    protected boolean retryRejected(final Runnable task) {
+        if (((TaskQueue) getQueue()).retryOffer(task)) {
+            return true;
+        }
+        submittedTaskCount.decrementAndGet();
+        return false;
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.core.threads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.extern.slf4j.Slf4j;
+import net.lcyframework.kernel.core.config.BaseProperties;
+import net.lcyframework.kernel.core.metrics.JmxRegistrar;
+import net.lcyframework.kernel.core.task.TaskManger;
+
+/**
+ * <pre>
+ * 名称: ExecutorRegistry
+ * 描述: 按名称登记{@link MonitoredThreadPoolExecutor}, 通过{@link #getStats()}拉取或JMX查看
+ * 第一个线程池登记时启动采样任务, 周期计算每个线程池的完成速率, 并按配置项在线调整线程池大小
+ * (见{@link MonitoredThreadPoolExecutor}), 配置通过轮询读取, 修改后最迟一个周期生效, 或调用{@link #refresh()}立即生效;
+ * 登记时注册MXBean
+ * net.lcyframework:type=ExecutorMetrics. 重名的线程池登记为"名称-序号"
+ * 配置项:
+ *   threadpool.metrics.sampleInterval   采样和读取线程池配置的周期(毫秒), 默认10000
+ * </pre>
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+@Slf4j
+public final class ExecutorRegistry {
+
+    private static final String TASK_NAME = "ExecutorRegistry-sampler";
+
+    private static final long SAMPLE_INTERVAL = BaseProperties.getProperty("threadpool.metrics.sampleInterval",
+            Long.class, 10000L);
+
+    private static final ConcurrentMap<String, MonitoredThreadPoolExecutor> EXECUTORS
+            = new ConcurrentHashMap<String, MonitoredThreadPoolExecutor>();
+
+    private static final AtomicInteger NAME_SEQ = new AtomicInteger(1);
+
+    private static final AtomicBoolean STARTED = new AtomicBoolean();
+
+    private ExecutorRegistry() { }
+
+    /**
+     * 登记线程池
+     * @param name 名称
+     * @param executor 线程池
+     * @return 实际登记的名称
+     */
+    static String register(final String name, final MonitoredThreadPoolExecutor executor) {
+        String registeredName = name;
+        while (EXECUTORS.putIfAbsent(registeredName, executor) != null) {
+            registeredName = name + "-" + NAME_SEQ.incrementAndGet();
+        }
+        if (STARTED.compareAndSet(false, true)) {
+            start();
+        }
+        return registeredName;
+    }
+
+    /**
+     * 注销线程池
+     * @param name 登记的名称
+     * @param executor 线程池
+     */
+    static void unregister(final String name, final MonitoredThreadPoolExecutor executor) {
+        EXECUTORS.remove(name, executor);
+    }
+
+    /**
+     * 获取线程池
+     * @param name 登记的名称
+     * @return 线程池, 不存在时为null
+     */
+    public static MonitoredThreadPoolExecutor get(final String name) {
+        return EXECUTORS.get(name);
+    }
+
+    /**
+     * 所有线程池的统计快照
+     * @return 统计快照
+     */
+    public static List<ExecutorStats> getStats() {
+        List<ExecutorStats> stats = new ArrayList<ExecutorStats>(EXECUTORS.size());
+        for (MonitoredThreadPoolExecutor executor : EXECUTORS.values()) {
+            stats.add(executor.getStats());
+        }
+        return stats;
+    }
+
+    /**
+     * 清空所有线程池的耗时统计和拒绝数
+     */
+    public static void reset() {
+        for (MonitoredThreadPoolExecutor executor : EXECUTORS.values()) {
+            executor.resetStats();
+        }
+    }
+
+    /**
+     * 立即按配置项调整所有线程池, 修改配置后无需等待采样周期
+     */
+    public static void refresh() {
+        for (MonitoredThreadPoolExecutor executor : EXECUTORS.values()) {
+            executor.applyProperties();
+        }
+    }
+
+    private static void start() {
+        TaskManger.getInstance().addTask(() -> {
+            // 单个线程池失败不影响其他线程池
+            for (MonitoredThreadPoolExecutor executor : EXECUTORS.values()) {
+                try {
+                    executor.sample();
+                    executor.applyProperties();
+                } catch (final RuntimeException e) {
+                    log.warn("sample thread pool [{}] error:{}", executor.getRegisteredName(), e.getMessage(), e);
+                }
+            }
+        }, TASK_NAME, SAMPLE_INTERVAL, TimeUnit.MILLISECONDS);
+        JmxRegistrar.register("ExecutorMetrics", null, new ExecutorMetricsMXBean() {
+
+            @Override
+            public List<ExecutorStats> getExecutorStats() {
+                return ExecutorRegistry.getStats();
+            }
+
+            @Override
+            public int getExecutorCount() {
+                return EXECUTORS.size();
+            }
+
+            @Override
+            public void reset() {
+                ExecutorRegistry.reset();
+            }
+        });
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.core.threads;
+
+import lombok.Data;
+
+/**
+ * <pre>
+ * 名称: ExecutorStats
+ * 描述: 线程池统计快照, 耗时单位为微秒
+ * </pre>
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+@Data
+public class ExecutorStats {
+
+    private String name;
+
+    private int corePoolSize;
+
+    private int maximumPoolSize;
+
+    private int poolSize;
+
+    private int largestPoolSize;
+
+    private int activeCount;
+
+    /** 队列中等待的任务数 */
+    private int queueSize;
+
+    /** 队列剩余容量, 无界队列为Integer.MAX_VALUE */
+    private int queueRemainingCapacity;
+
+    private long completedTaskCount;
+
+    /** 最近一个采样周期内每秒完成的任务数 */
+    private double completedPerSecond;
+
+    /** 被拒绝的任务数 */
+    private long rejectedCount;
+
+    /** 任务在队列中的等待时间 */
+    private long queueWaitP50;
+
+    private long queueWaitP99;
+
+    private long queueWaitMax;
+
+    /** 任务执行时间 */
+    private long runTimeP50;
+
+    private long runTimeP99;
+
+    private long runTimeMax;
+}
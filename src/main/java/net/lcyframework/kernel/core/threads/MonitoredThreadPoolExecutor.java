@@ -0,0 +1,401 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.core.threads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.extern.slf4j.Slf4j;
+import net.lcyframework.kernel.core.config.BaseProperties;
+import net.lcyframework.kernel.core.metrics.LatencyHistogram;
+
+/**
+ * <pre>
+ * 名称: MonitoredThreadPoolExecutor
+ * 描述: 带统计的线程池
+ * 任务提交时包装并记录入队时间, 开始执行时记录队列等待时间, 结束时记录执行时间, 拒绝时计数;
+ * 包装只对{@link #getQueue()}可见, {@link #beforeTask(Thread, Runnable)}、{@link #afterTask(Runnable, Throwable)}、
+ * 拒绝策略和{@link #shutdownNow()}得到的都是提交的原任务.
+ * 构造后调用{@link #register()}按名称登记到{@link ExecutorRegistry}({@link ThreadPool}创建的线程池已登记), 终止后自动注销.
+ * 核心线程数、最大线程数和队列容量绑定以下配置项, 登记时和{@link ExecutorRegistry}每个采样周期读取, 变化时在线调整;
+ * {@link BaseProperties}没有变更通知, 修改配置后最迟一个采样周期生效, 需立即生效时调用{@link ExecutorRegistry#refresh()},
+ * 队列容量只对{@link ResizableBlockingQueue}生效:
+ *   threadpool.{name}.coreSize        核心线程数
+ *   threadpool.{name}.maxSize         最大线程数
+ *   threadpool.{name}.queueCapacity   队列容量
+ * </pre>
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+@Slf4j
+public class MonitoredThreadPoolExecutor extends ThreadPoolExecutor {
+
+    private static final double P50 = 50D;
+    private static final double P99 = 99D;
+    private static final double NANOS_PER_SECOND = 1e9D;
+
+    private final String name;
+
+    private volatile String registeredName;
+
+    /** 当前线程执行的任务的开始时间 */
+    private final ThreadLocal<long[]> startNanos = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+
+    private final LatencyHistogram runTime = new LatencyHistogram();
+
+    private final LongAdder rejectedCount = new LongAdder();
+
+    private long lastSampleNanos = System.nanoTime();
+
+    private long lastSampleCompleted;
+
+    private volatile double completedPerSecond;
+
+    /**
+     * 构造方法
+     * @param name 线程池名称, 重名时注册名追加序号
+     * @param corePoolSize 核心线程数
+     * @param maximumPoolSize 最大线程数
+     * @param keepAliveTime 空闲线程存活时间
+     * @param unit 时间单位
+     * @param workQueue 任务队列
+     * @param threadFactory 线程工厂
+     * @param handler 拒绝策略
+     */
+    public MonitoredThreadPoolExecutor(final String name, final int corePoolSize, final int maximumPoolSize,
+            final long keepAliveTime, final TimeUnit unit, final BlockingQueue<Runnable> workQueue,
+            final ThreadFactory threadFactory, final RejectedExecutionHandler handler) {
+        super(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, threadFactory);
+        setRejectedExecutionHandler(handler);
+        this.name = name;
+    }
+
+    /**
+     * 读取配置项并登记到{@link ExecutorRegistry}, 在构造完成后调用, 避免子类字段初始化前被采样任务访问; 重复调用无效
+     * @return this
+     */
+    public synchronized MonitoredThreadPoolExecutor register() {
+        if (this.registeredName == null && !isShutdown()) {
+            applyProperties();
+            this.registeredName = ExecutorRegistry.register(this.name, this);
+        }
+        return this;
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        super.execute(command instanceof TimedTask ? command : new TimedTask(command));
+    }
+
+    /**
+     * 记录队列等待时间和开始时间, 子类请覆盖{@link #beforeTask(Thread, Runnable)}
+     * @param t 执行线程
+     * @param r 任务
+     */
+    @Override
+    protected final void beforeExecute(final Thread t, final Runnable r) {
+        Runnable task = r;
+        if (r instanceof TimedTask) {
+            TimedTask timedTask = (TimedTask) r;
+            this.queueWait.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - timedTask.submitNanos));
+            task = timedTask.task;
+        }
+        beforeTask(t, task);
+        this.startNanos.get()[0] = System.nanoTime();
+    }
+
+    /**
+     * 记录执行时间, 子类请覆盖{@link #afterTask(Runnable, Throwable)}
+     * @param r 任务
+     * @param t 任务抛出的异常
+     */
+    @Override
+    protected final void afterExecute(final Runnable r, final Throwable t) {
+        this.runTime.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - this.startNanos.get()[0]));
+        afterTask(unwrap(r), t);
+    }
+
+    /**
+     * 任务执行前在执行线程中调用
+     * @param t 执行线程
+     * @param task 提交的任务
+     */
+    protected void beforeTask(final Thread t, final Runnable task) {
+    }
+
+    /**
+     * 任务执行后在执行线程中调用
+     * @param task 提交的任务
+     * @param t 任务抛出的异常, 正常结束时为null
+     */
+    protected void afterTask(final Runnable task, final Throwable t) {
+    }
+
+    /**
+     * 立即关闭, 返回队列中未执行的原任务
+     * @return 未执行的任务
+     */
+    @Override
+    public List<Runnable> shutdownNow() {
+        List<Runnable> queued = super.shutdownNow();
+        List<Runnable> tasks = new ArrayList<Runnable>(queued.size());
+        for (Runnable runnable : queued) {
+            tasks.add(unwrap(runnable));
+        }
+        return tasks;
+    }
+
+    /**
+     * 移除队列中尚未执行的任务, 兼容包装后的任务
+     * @param task 任务
+     * @return 是否移除
+     */
+    @Override
+    public boolean remove(final Runnable task) {
+        for (Runnable queued : getQueue()) {
+            if (queued == task || unwrap(queued) == task) {
+                return super.remove(queued);
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void terminated() {
+        super.terminated();
+        if (this.registeredName != null) {
+            ExecutorRegistry.unregister(this.registeredName, this);
+        }
+    }
+
+    /**
+     * 调整核心线程数和最大线程数, 按先后顺序设置以保证任意时刻核心线程数不大于最大线程数
+     * @param corePoolSize 核心线程数
+     * @param maximumPoolSize 最大线程数
+     */
+    public synchronized void resize(final int corePoolSize, final int maximumPoolSize) {
+        if (corePoolSize < 0 || maximumPoolSize <= 0 || corePoolSize > maximumPoolSize) {
+            throw new IllegalArgumentException("invalid pool size, core: " + corePoolSize + ", max: " + maximumPoolSize);
+        }
+        if (maximumPoolSize >= getCorePoolSize()) {
+            setMaximumPoolSize(maximumPoolSize);
+            setCorePoolSize(corePoolSize);
+        } else {
+            setCorePoolSize(corePoolSize);
+            setMaximumPoolSize(maximumPoolSize);
+        }
+    }
+
+    /**
+     * 调整队列容量
+     * @param queueCapacity 队列容量
+     * @return 队列不是{@link ResizableBlockingQueue}时返回false
+     */
+    public boolean setQueueCapacity(final int queueCapacity) {
+        if (!(getQueue() instanceof ResizableBlockingQueue)) {
+            return false;
+        }
+        ((ResizableBlockingQueue<Runnable>) getQueue()).setCapacity(queueCapacity);
+        return true;
+    }
+
+    /**
+     * 按配置项调整线程数和队列容量, 未配置的保持不变, 配置非法(含无法转换为整数)时记录日志并忽略
+     */
+    public synchronized void applyProperties() {
+        String prefix = "threadpool." + this.name + ".";
+        try {
+            Integer coreSize = BaseProperties.getProperty(prefix + "coreSize", Integer.class);
+            Integer maxSize = BaseProperties.getProperty(prefix + "maxSize", Integer.class);
+            Integer queueCapacity = BaseProperties.getProperty(prefix + "queueCapacity", Integer.class);
+            int core = coreSize == null ? getCorePoolSize() : coreSize;
+            int max = maxSize == null ? getMaximumPoolSize() : maxSize;
+            if (core != getCorePoolSize() || max != getMaximumPoolSize()) {
+                log.info("resize thread pool [{}] core: {} -> {}, max: {} -> {}", this.name, getCorePoolSize(), core,
+                        getMaximumPoolSize(), max);
+                resize(core, max);
+            }
+            if (queueCapacity != null && getQueue() instanceof ResizableBlockingQueue) {
+                ResizableBlockingQueue<Runnable> queue = (ResizableBlockingQueue<Runnable>) getQueue();
+                if (queueCapacity != queue.getCapacity()) {
+                    log.info("resize thread pool [{}] queue capacity: {} -> {}", this.name, queue.getCapacity(),
+                            queueCapacity);
+                    queue.setCapacity(queueCapacity);
+                }
+            }
+        } catch (final RuntimeException e) {
+            // ConversionFailedException或IllegalArgumentException, 只影响本线程池
+            log.warn("ignore thread pool [{}] properties: {}", this.name, e.getMessage());
+        }
+    }
+
+    /**
+     * 线程池名称, 即配置项中的{name}
+     * @return 名称
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * 登记到{@link ExecutorRegistry}的名称
+     * @return 名称, 未登记时为null
+     */
+    public String getRegisteredName() {
+        return this.registeredName;
+    }
+
+    public long getRejectedCount() {
+        return this.rejectedCount.sum();
+    }
+
+    /**
+     * 统计快照
+     * @return 统计快照
+     */
+    public ExecutorStats getStats() {
+        ExecutorStats stats = new ExecutorStats();
+        stats.setName(this.registeredName == null ? this.name : this.registeredName);
+        stats.setCorePoolSize(getCorePoolSize());
+        stats.setMaximumPoolSize(getMaximumPoolSize());
+        stats.setPoolSize(getPoolSize());
+        stats.setLargestPoolSize(getLargestPoolSize());
+        stats.setActiveCount(getActiveCount());
+        stats.setQueueSize(getQueue().size());
+        stats.setQueueRemainingCapacity(getQueue().remainingCapacity());
+        stats.setCompletedTaskCount(getCompletedTaskCount());
+        stats.setCompletedPerSecond(this.completedPerSecond);
+        stats.setRejectedCount(this.rejectedCount.sum());
+        stats.setQueueWaitP50(this.queueWait.getValueAtPercentile(P50));
+        stats.setQueueWaitP99(this.queueWait.getValueAtPercentile(P99));
+        stats.setQueueWaitMax(this.queueWait.getMax());
+        stats.setRunTimeP50(this.runTime.getValueAtPercentile(P50));
+        stats.setRunTimeP99(this.runTime.getValueAtPercentile(P99));
+        stats.setRunTimeMax(this.runTime.getMax());
+        return stats;
+    }
+
+    /**
+     * 清空耗时统计和拒绝数
+     */
+    public void resetStats() {
+        this.queueWait.reset();
+        this.runTime.reset();
+        this.rejectedCount.reset();
+    }
+
+    /**
+     * 设置拒绝策略, 包装后先经过{@link #retryRejected(Runnable)}并计数, 再交给该策略处理
+     * @param handler 拒绝策略
+     */
+    @Override
+    public void setRejectedExecutionHandler(final RejectedExecutionHandler handler) {
+        if (handler == null) {
+            throw new NullPointerException();
+        }
+        super.setRejectedExecutionHandler(new CountingRejectedExecutionHandler(handler));
+    }
+
+    /**
+     * 设置的拒绝策略, 不含计数包装
+     * @return 拒绝策略
+     */
+    @Override
+    public RejectedExecutionHandler getRejectedExecutionHandler() {
+        return ((CountingRejectedExecutionHandler) super.getRejectedExecutionHandler()).handler;
+    }
+
+    /**
+     * 拒绝策略处理前的重试, 子类可在此把任务放入队列
+     * @param task 被拒绝的任务, 为包装后的任务, 重新入队时原样放入
+     * @return 是否已接收任务, 返回false时交给拒绝策略
+     */
+    protected boolean retryRejected(final Runnable task) {
+        return false;
+    }
+
+    /**
+     * 采样完成速率, 由{@link ExecutorRegistry}的采样任务周期调用
+     */
+    synchronized void sample() {
+        long now = System.nanoTime();
+        long completed = getCompletedTaskCount();
+        if (now > this.lastSampleNanos) {
+            this.completedPerSecond = (completed - this.lastSampleCompleted) * NANOS_PER_SECOND
+                    / (now - this.lastSampleNanos);
+        }
+        this.lastSampleNanos = now;
+        this.lastSampleCompleted = completed;
+    }
+
+    private static Runnable unwrap(final Runnable runnable) {
+        return runnable instanceof TimedTask ? ((TimedTask) runnable).task : runnable;
+    }
+
+    /**
+     * 记录入队时间的任务包装
+     */
+    private static final class TimedTask implements Runnable {
+
+        private final Runnable task;
+
+        private final long submitNanos = System.nanoTime();
+
+        TimedTask(final Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            this.task.run();
+        }
+
+        @Override
+        public String toString() {
+            return this.task.toString();
+        }
+    }
+
+    /**
+     * 计数后交给原拒绝策略处理
+     */
+    private final class CountingRejectedExecutionHandler implements RejectedExecutionHandler {
+
+        private final RejectedExecutionHandler handler;
+
+        CountingRejectedExecutionHandler(final RejectedExecutionHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void rejectedExecution(final Runnable r, final ThreadPoolExecutor executor) {
+            if (!isShutdown() && retryRejected(r)) {
+                return;
+            }
+            rejectedCount.increment();
+            this.handler.rejectedExecution(unwrap(r), executor);
+        }
+    }
+}
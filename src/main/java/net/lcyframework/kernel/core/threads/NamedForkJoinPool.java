@@ -0,0 +1,145 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.core.threads;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * <pre>
+ * 名称: NamedForkJoinPool
+ * 描述: 命名的工作窃取线程池
+ * 每个工作线程有自己的任务队列, 空闲时从其他线程窃取, 多核同时提交小任务时不会争用同一个队列锁,
+ * 适合CPU密集的批量转换(对象复制、大列表JSON编码等)拆分并行执行. 提交的任务按FIFO执行(asyncMode),
+ * 线程按{@link NamedThreadFactory}格式命名, 未捕获的异常由{@link UncaughtExceptionReporter}记录,
+ * 拒绝任务时由{@link AbortPolicyWithReport}按相同格式记录后抛出, 只处理提交时的拒绝, 任务自身抛出的异常原样抛出
+ * </pre>
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+public class NamedForkJoinPool extends ForkJoinPool {
+
+    private final String name;
+
+    private final AbortPolicyWithReport rejectedReporter;
+
+    /**
+     * 构造方法
+     * @param name 线程池名称
+     * @param parallelism 并行度
+     */
+    public NamedForkJoinPool(final String name, final int parallelism) {
+        super(parallelism, new NamedForkJoinWorkerThreadFactory(name), new UncaughtExceptionReporter(), true);
+        this.name = name;
+        this.rejectedReporter = new AbortPolicyWithReport(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public <T> T invoke(final ForkJoinTask<T> task) {
+        // 只有提交经过拒绝处理, 任务内部(如向其他线程池提交)抛出的拒绝异常由join原样抛出
+        execute(task);
+        return task.join();
+    }
+
+    @Override
+    public <T> List<Future<T>> invokeAll(final Collection<? extends Callable<T>> tasks) {
+        List<Future<T>> futures = new ArrayList<Future<T>>(tasks.size());
+        boolean done = false;
+        try {
+            for (Callable<T> task : tasks) {
+                ForkJoinTask<T> future = ForkJoinTask.adapt(task);
+                futures.add(future);
+                execute(future);
+            }
+            for (Future<T> future : futures) {
+                ((ForkJoinTask<T>) future).quietlyJoin();
+            }
+            done = true;
+            return futures;
+        } finally {
+            if (!done) {
+                for (Future<T> future : futures) {
+                    future.cancel(false);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void execute(final ForkJoinTask<?> task) {
+        try {
+            super.execute(task);
+        } catch (final RejectedExecutionException e) {
+            throw rejectedReporter.rejectedExecution(this, e);
+        }
+    }
+
+    @Override
+    public void execute(final Runnable task) {
+        try {
+            super.execute(task);
+        } catch (final RejectedExecutionException e) {
+            throw rejectedReporter.rejectedExecution(this, e);
+        }
+    }
+
+    @Override
+    public <T> ForkJoinTask<T> submit(final ForkJoinTask<T> task) {
+        try {
+            return super.submit(task);
+        } catch (final RejectedExecutionException e) {
+            throw rejectedReporter.rejectedExecution(this, e);
+        }
+    }
+
+    @Override
+    public <T> ForkJoinTask<T> submit(final Callable<T> task) {
+        try {
+            return super.submit(task);
+        } catch (final RejectedExecutionException e) {
+            throw rejectedReporter.rejectedExecution(this, e);
+        }
+    }
+
+    @Override
+    public <T> ForkJoinTask<T> submit(final Runnable task, final T result) {
+        try {
+            return super.submit(task, result);
+        } catch (final RejectedExecutionException e) {
+            throw rejectedReporter.rejectedExecution(this, e);
+        }
+    }
+
+    @Override
+    public ForkJoinTask<?> submit(final Runnable task) {
+        try {
+            return super.submit(task);
+        } catch (final RejectedExecutionException e) {
+            throw rejectedReporter.rejectedExecution(this, e);
+        }
+    }
+}
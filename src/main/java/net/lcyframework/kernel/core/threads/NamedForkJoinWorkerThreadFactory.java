@@ -0,0 +1,51 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.core.threads;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <pre>
+ * 名称: NamedForkJoinWorkerThreadFactory
+ * 描述: 按{@link NamedThreadFactory}格式命名的ForkJoin工作线程工厂, 线程名为prefix-thread-序号
+ * </pre>
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+public class NamedForkJoinWorkerThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+
+    private final AtomicInteger mThreadNum = new AtomicInteger(1);
+
+    private final String mPrefix;
+
+    /**
+     * 构造方法
+     * @param prefix 前缀
+     */
+    public NamedForkJoinWorkerThreadFactory(final String prefix) {
+        mPrefix = prefix + "-thread-";
+    }
+
+    @Override
+    public ForkJoinWorkerThread newThread(final ForkJoinPool pool) {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName(mPrefix + mThreadNum.getAndIncrement());
+        return thread;
+    }
+}
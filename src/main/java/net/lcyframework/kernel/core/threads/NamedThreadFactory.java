@@ -23,6 +23,7 @@ import java.util.concurrent.atomic.AtomicInteger;
  * <pre>
  * 名称: NamedThreadFactory
  * 描述: NamedThreadFactory
+ * 虚拟线程模式下运行时支持时创建虚拟线程(总是守护线程), 不支持时回退为平台线程
  * </pre>
  * @author Jimmy Li
  * @since 1.0.0
@@ -39,6 +40,8 @@ public class NamedThreadFactory implements ThreadFactory {
 
     private final ThreadGroup mGroup;
 
+    private final ThreadFactory mVirtualFactory;
+
     /**
      * 构造方法
      */
@@ -60,10 +63,21 @@ public class NamedThreadFactory implements ThreadFactory {
      * @param daemo  是否守护
      */
     public NamedThreadFactory(final String prefix, final boolean daemo) {
+        this(prefix, daemo, false);
+    }
+
+    /**
+     * 构造方法
+     * @param prefix 前缀
+     * @param daemo  是否守护, 虚拟线程忽略
+     * @param virtual 是否创建虚拟线程
+     */
+    public NamedThreadFactory(final String prefix, final boolean daemo, final boolean virtual) {
         mPrefix = prefix + "-thread-";
         mDaemo = daemo;
         SecurityManager s = System.getSecurityManager();
         mGroup = (s == null) ? Thread.currentThread().getThreadGroup() : s.getThreadGroup();
+        mVirtualFactory = virtual && VirtualThreads.isSupported() ? VirtualThreads.newThreadFactory(mPrefix) : null;
     }
 
     /**
@@ -73,12 +87,23 @@ public class NamedThreadFactory implements ThreadFactory {
      */
     @Override
     public Thread newThread(final Runnable runnable) {
+        if (mVirtualFactory != null) {
+            return mVirtualFactory.newThread(runnable);
+        }
         String name = mPrefix + mThreadNum.getAndIncrement();
         Thread ret = new Thread(mGroup, runnable, name, 0);
         ret.setDaemon(mDaemo);
         return ret;
     }
 
+    /**
+     * 是否创建虚拟线程
+     * @return boolean
+     */
+    public boolean isVirtual() {
+        return mVirtualFactory != null;
+    }
+
     public ThreadGroup getThreadGroup() {
         return mGroup;
     }
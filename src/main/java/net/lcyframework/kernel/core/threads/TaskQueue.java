@@ -0,0 +1,75 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.core.threads;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * <pre>
+ * 名称: TaskQueue
+ * 描述: {@link EagerThreadPoolExecutor}的任务队列
+ * 有空闲线程时入队; 线程数未达到最大线程数时拒绝入队, 使线程池先创建线程; 达到最大线程数后才入队
+ * </pre>
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+public class TaskQueue extends ResizableBlockingQueue<Runnable> {
+
+    private transient volatile EagerThreadPoolExecutor executor;
+
+    /**
+     * 构造方法
+     * @param capacity 容量
+     */
+    public TaskQueue(final int capacity) {
+        super(capacity);
+    }
+
+    public void setExecutor(final EagerThreadPoolExecutor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public boolean offer(final Runnable runnable) {
+        EagerThreadPoolExecutor current = executor;
+        if (current == null) {
+            return super.offer(runnable);
+        }
+        int poolSize = current.getPoolSize();
+        // 有空闲线程, 直接入队由空闲线程执行
+        if (current.getSubmittedTaskCount() <= poolSize) {
+            return super.offer(runnable);
+        }
+        // 返回false让线程池创建新线程
+        if (poolSize < current.getMaximumPoolSize()) {
+            return false;
+        }
+        return super.offer(runnable);
+    }
+
+    /**
+     * 线程池拒绝后重试入队, 不再判断线程数
+     * @param runnable 任务
+     * @return 是否入队
+     */
+    public boolean retryOffer(final Runnable runnable) {
+        if (executor != null && executor.isShutdown()) {
+            throw new RejectedExecutionException("Executor is shutdown!");
+        }
+        return super.offer(runnable);
+    }
+}
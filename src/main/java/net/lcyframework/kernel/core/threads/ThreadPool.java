@@ -16,23 +16,32 @@
 
 package net.lcyframework.kernel.core.threads;
 
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.SynchronousQueue;
-import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
+import net.lcyframework.kernel.core.config.BaseProperties;
+
 /**
  * <pre>
  * 名称: ThreadPool
  * 描述: 线程池
+ * 创建的线程池均为{@link MonitoredThreadPoolExecutor}, 构造完成后按名称登记到{@link ExecutorRegistry},
+ * 有界队列为{@link ResizableBlockingQueue}, 线程数和队列容量可按配置项在线调整
  * </pre>
  * @author Jimmy Li
  * @since 1.0.0
  */
 public final class ThreadPool {
 
+    private static final int VIRTUAL_FALLBACK_THREADS = BaseProperties.getProperty("threadpool.virtual.fallbackThreads",
+            Integer.class, 200);
+
+    private static final int VIRTUAL_FALLBACK_ALIVE = 60 * 1000;
+
     private ThreadPool() { }
 
     /**
@@ -47,10 +56,8 @@ public final class ThreadPool {
      */
     public static ExecutorService newCachedThreadPool(final String name, final int cores, final int threads,
             final int queues, final int alive) {
-        return new ThreadPoolExecutor(cores, threads, alive, TimeUnit.MILLISECONDS,
-                queues == 0 ? new SynchronousQueue<Runnable>()
-                        : (queues < 0 ? new LinkedBlockingQueue<Runnable>() : new ArrayBlockingQueue<Runnable>(queues)),
-                new NamedThreadFactory(name, true), new AbortPolicyWithReport(name));
+        return new MonitoredThreadPoolExecutor(name, cores, threads, alive, TimeUnit.MILLISECONDS,
+                newQueue(queues), new NamedThreadFactory(name, true), new AbortPolicyWithReport(name)).register();
     }
 
     /**
@@ -64,10 +71,9 @@ public final class ThreadPool {
      */
     public static ExecutorService newCachedThreadPool(final String name, final int threads, final int queues,
             final int alive) {
-        return new ThreadPoolExecutor(Math.min(getSystemProcessors(), alive), threads, alive, TimeUnit.MILLISECONDS,
-                queues == 0 ? new SynchronousQueue<Runnable>()
-                        : (queues < 0 ? new LinkedBlockingQueue<Runnable>() : new ArrayBlockingQueue<Runnable>(queues)),
-                new NamedThreadFactory(name, true), new AbortPolicyWithReport(name));
+        return new MonitoredThreadPoolExecutor(name, Math.min(getSystemProcessors(), alive), threads, alive,
+                TimeUnit.MILLISECONDS, newQueue(queues), new NamedThreadFactory(name, true),
+                new AbortPolicyWithReport(name)).register();
     }
 
     /**
@@ -79,10 +85,8 @@ public final class ThreadPool {
      * @return 线程池
      */
     public static ExecutorService newFixedThreadPool(final String name, final int threads, final int queues) {
-        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
-                queues == 0 ? new SynchronousQueue<Runnable>()
-                        : (queues < 0 ? new LinkedBlockingQueue<Runnable>() : new ArrayBlockingQueue<Runnable>(queues)),
-                new NamedThreadFactory(name, true), new AbortPolicyWithReport(name));
+        return new MonitoredThreadPoolExecutor(name, threads, threads, 0, TimeUnit.MILLISECONDS,
+                newQueue(queues), new NamedThreadFactory(name, true), new AbortPolicyWithReport(name)).register();
     }
 
     /**
@@ -94,10 +98,8 @@ public final class ThreadPool {
      */
     public static ExecutorService newFixedThreadPool(final String name, final int queues) {
         int threads = getSystemProcessors();
-        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
-                queues == 0 ? new SynchronousQueue<Runnable>()
-                        : (queues < 0 ? new LinkedBlockingQueue<Runnable>() : new ArrayBlockingQueue<Runnable>(queues)),
-                new NamedThreadFactory(name, true), new AbortPolicyWithReport(name));
+        return new MonitoredThreadPoolExecutor(name, threads, threads, 0, TimeUnit.MILLISECONDS,
+                newQueue(queues), new NamedThreadFactory(name, true), new AbortPolicyWithReport(name)).register();
     }
 
     /**
@@ -110,10 +112,8 @@ public final class ThreadPool {
      * @return 线程池
      */
     public static ExecutorService newLimitedThreadPool(final String name, final int cores, final int threads, final int queues) {
-        return new ThreadPoolExecutor(cores, threads, Long.MAX_VALUE, TimeUnit.MILLISECONDS,
-                queues == 0 ? new SynchronousQueue<Runnable>()
-                        : (queues < 0 ? new LinkedBlockingQueue<Runnable>() : new ArrayBlockingQueue<Runnable>(queues)),
-                new NamedThreadFactory(name, true), new AbortPolicyWithReport(name));
+        return new MonitoredThreadPoolExecutor(name, cores, threads, Long.MAX_VALUE, TimeUnit.MILLISECONDS,
+                newQueue(queues), new NamedThreadFactory(name, true), new AbortPolicyWithReport(name)).register();
     }
 
     /**
@@ -125,11 +125,82 @@ public final class ThreadPool {
      * @return 线程池
      */
     public static ExecutorService newLimitedThreadPool(final  String name, final int threads, final int queues) {
-        return new ThreadPoolExecutor(Math.min(getSystemProcessors(), threads), threads, Long.MAX_VALUE,
-                TimeUnit.MILLISECONDS,
-                queues == 0 ? new SynchronousQueue<Runnable>()
-                        : (queues < 0 ? new LinkedBlockingQueue<Runnable>() : new ArrayBlockingQueue<Runnable>(queues)),
-                new NamedThreadFactory(name, true), new AbortPolicyWithReport(name));
+        return new MonitoredThreadPoolExecutor(name, Math.min(getSystemProcessors(), threads), threads,
+                Long.MAX_VALUE, TimeUnit.MILLISECONDS, newQueue(queues), new NamedThreadFactory(name, true),
+                new AbortPolicyWithReport(name)).register();
+    }
+
+    /**
+     * 创建先扩线程再排队的线程池, 线程数达到最大线程数后任务才进入队列
+     *
+     * @param name 线程名称
+     * @param cores 初始化线程数
+     * @param threads 最大线程数
+     * @param queues 线程等待池大小, 小于等于0时为1
+     * @param alive 有效线程数
+     * @return 线程池
+     */
+    public static ExecutorService newEagerThreadPool(final String name, final int cores, final int threads,
+            final int queues, final int alive) {
+        return new EagerThreadPoolExecutor(name, cores, threads, alive, TimeUnit.MILLISECONDS,
+                new TaskQueue(queues <= 0 ? 1 : queues), new NamedThreadFactory(name, true),
+                new AbortPolicyWithReport(name)).register();
+    }
+
+    /**
+     * 创建虚拟线程池, 每个任务一个虚拟线程
+     *
+     * @param name 线程名称
+     * @return 线程池
+     * @see #newVirtualThreadExecutor(String, int)
+     */
+    public static ExecutorService newVirtualThreadExecutor(final String name) {
+        return newVirtualThreadExecutor(name, 0);
+    }
+
+    /**
+     * 创建虚拟线程池, 每个任务一个虚拟线程, 同时执行的任务数不超过maxConcurrency.
+     * 运行时不支持虚拟线程时回退为先扩线程再排队的平台线程池, 最大线程数为maxConcurrency,
+     * 未限制时为配置项threadpool.virtual.fallbackThreads(默认200), 队列无界
+     *
+     * @param name 线程名称
+     * @param maxConcurrency 同时执行的最大任务数, 小于等于0时不限制
+     * @return 线程池
+     */
+    public static ExecutorService newVirtualThreadExecutor(final String name, final int maxConcurrency) {
+        if (!VirtualThreads.isSupported()) {
+            int threads = maxConcurrency > 0 ? maxConcurrency : VIRTUAL_FALLBACK_THREADS;
+            return newEagerThreadPool(name, Math.min(getSystemProcessors(), threads), threads, Integer.MAX_VALUE,
+                    VIRTUAL_FALLBACK_ALIVE);
+        }
+        ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor(new NamedThreadFactory(name, true, true));
+        return maxConcurrency > 0 ? new ConcurrencyLimitedExecutor(executor, maxConcurrency) : executor;
+    }
+
+    /**
+     * 创建工作窃取线程池, 并行度为OS的CPU核数
+     *
+     * @param name 线程名称
+     * @return 线程池
+     */
+    public static ForkJoinPool newWorkStealingPool(final String name) {
+        return newWorkStealingPool(name, getSystemProcessors());
+    }
+
+    /**
+     * 创建工作窃取线程池, 用于CPU密集任务的并行拆分
+     *
+     * @param name 线程名称
+     * @param parallelism 并行度
+     * @return 线程池
+     */
+    public static ForkJoinPool newWorkStealingPool(final String name, final int parallelism) {
+        return new NamedForkJoinPool(name, parallelism);
+    }
+
+    private static BlockingQueue<Runnable> newQueue(final int queues) {
+        return queues == 0 ? new SynchronousQueue<Runnable>()
+                : (queues < 0 ? new LinkedBlockingQueue<Runnable>() : new ResizableBlockingQueue<Runnable>(queues));
     }
 
     private static int getSystemProcessors() {
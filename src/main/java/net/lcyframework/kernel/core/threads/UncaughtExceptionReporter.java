@@ -0,0 +1,36 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.core.threads;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <pre>
+ * 名称: UncaughtExceptionReporter
+ * 描述: 记录线程未捕获的异常
+ * </pre>
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+@Slf4j
+public class UncaughtExceptionReporter implements Thread.UncaughtExceptionHandler {
+
+    @Override
+    public void uncaughtException(final Thread t, final Throwable e) {
+        log.error("uncaught exception in thread [{}]: {}", t.getName(), e.getMessage(), e);
+    }
+}
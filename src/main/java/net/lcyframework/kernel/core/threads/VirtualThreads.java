@@ -0,0 +1,121 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.core.threads;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import lombok.extern.slf4j.Slf4j;
+import net.lcyframework.kernel.core.consts.SysErrorConsts;
+import net.lcyframework.kernel.core.exception.SysException;
+
+/**
+ * <pre>
+ * 名称: VirtualThreads
+ * 描述: 虚拟线程支持
+ * 编译目标为Java 8, 通过反射调用Thread.ofVirtual()和Executors.newThreadPerTaskExecutor(Java 21+);
+ * 类加载时试创建一个虚拟线程(不启动), 运行时不支持(低版本或未开启预览特性)时{@link #isSupported()}返回false,
+ * 调用方据此回退到平台线程
+ * </pre>
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+@Slf4j
+public final class VirtualThreads {
+
+    private static final Method OF_VIRTUAL;
+    private static final Method BUILDER_NAME;
+    private static final Method BUILDER_FACTORY;
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+    private static final boolean SUPPORTED;
+
+    static {
+        Method ofVirtual = null;
+        Method builderName = null;
+        Method builderFactory = null;
+        Method newThreadPerTaskExecutor = null;
+        boolean supported = false;
+        try {
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builderName = builderClass.getMethod("name", String.class, long.class);
+            builderFactory = builderClass.getMethod("factory");
+            newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            ThreadFactory probe = (ThreadFactory) builderFactory.invoke(ofVirtual.invoke(null));
+            probe.newThread(() -> { });
+            supported = true;
+        } catch (final ReflectiveOperationException | LinkageError | RuntimeException e) {
+            log.info("virtual threads are not supported by the runtime, fall back to platform threads: {}",
+                    e instanceof InvocationTargetException ? e.getCause() : e.toString());
+        }
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = builderName;
+        BUILDER_FACTORY = builderFactory;
+        NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutor;
+        SUPPORTED = supported;
+    }
+
+    private VirtualThreads() { }
+
+    /**
+     * 运行时是否支持虚拟线程
+     * @return boolean
+     */
+    public static boolean isSupported() {
+        return SUPPORTED;
+    }
+
+    /**
+     * 创建虚拟线程工厂, 线程名为prefix + 序号(从1开始)
+     * @param prefix 线程名前缀
+     * @return 线程工厂
+     * @throws UnsupportedOperationException 运行时不支持虚拟线程
+     */
+    public static ThreadFactory newThreadFactory(final String prefix) {
+        checkSupported();
+        try {
+            Object builder = BUILDER_NAME.invoke(OF_VIRTUAL.invoke(null), prefix, 1L);
+            return (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+        } catch (final ReflectiveOperationException e) {
+            throw new SysException(SysErrorConsts.SYS_ERROR_CODE, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 创建每个任务一个线程的线程池
+     * @param threadFactory 线程工厂, 一般为{@link #newThreadFactory(String)}
+     * @return 线程池
+     * @throws UnsupportedOperationException 运行时不支持虚拟线程
+     */
+    public static ExecutorService newThreadPerTaskExecutor(final ThreadFactory threadFactory) {
+        checkSupported();
+        try {
+            return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, threadFactory);
+        } catch (final ReflectiveOperationException e) {
+            throw new SysException(SysErrorConsts.SYS_ERROR_CODE, e.getMessage(), e);
+        }
+    }
+
+    private static void checkSupported() {
+        if (!SUPPORTED) {
+            throw new UnsupportedOperationException("virtual threads are not supported by the runtime");
+        }
+    }
+}
@@ -71,6 +71,14 @@ public class ZookeeperClient {
         log.info("zookeeper established connection successful");
     }
 
+    /**
+     * 获取Curator客户端
+     * @return CuratorFramework
+     */
+    public CuratorFramework getClient() {
+        return zkclient;
+    }
+
     /**
      * 创建连接监听
      * @return ConnectionStateListener
@@ -0,0 +1,320 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.plugin.zk;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.recipes.locks.InterProcessMutex;
+import org.apache.curator.framework.state.ConnectionState;
+import org.apache.curator.utils.PathUtils;
+import org.apache.curator.utils.ZKPaths;
+
+import com.google.common.base.Preconditions;
+
+import lombok.extern.slf4j.Slf4j;
+import net.lcyframework.kernel.core.lock.CompositeLock;
+import net.lcyframework.kernel.core.lock.ExpirableLockRegistry;
+
+/**
+ * <pre>
+ * 名称: ZookeeperLockRegistry
+ * 描述: 基于zookeeper的分布式锁, 每个key对应{@link ZookeeperConstants#LOCK}命名空间下的一个InterProcessMutex
+ * 同一JVM内先获取本地ReentrantLock再获取zk锁, 本地等待者在本地排队, 不会各自创建临时节点; 本地重入不访问zk.
+ * 会话丢失(LOST)后临时节点被删除, 此前获取的锁不再互斥, 持有者可通过{@link #isHeld(Object)}检查,
+ * 释放时忽略节点已不存在的异常.
+ * 获取锁失败(zk不可用等)时抛出IllegalStateException; lockInterruptibly和tryLock(long, TimeUnit)等待时被中断抛出
+ * InterruptedException, 并释放本地锁; lock()不响应中断, 获取后恢复中断标记.
+ * 长时间未使用的本地锁对象由{@link #expireUnusedOlderThan(long)}清理, zk上的父节点保留.
+ * </pre>
+ * @author yto.net.cn
+ * @since 1.0.0
+ */
+@Slf4j
+public class ZookeeperLockRegistry implements ExpirableLockRegistry {
+
+    private final CuratorFramework client;
+
+    private final String root;
+
+    private final ConcurrentMap<String, ZkLock> locks = new ConcurrentHashMap<String, ZkLock>();
+
+    /** 会话丢失次数, 获取锁时记录, 检查锁是否有效时比较 */
+    private final AtomicLong sessionLostCount = new AtomicLong();
+
+    /**
+     * 构造函数, 锁节点位于/lock下
+     * @param zookeeperClient zk客户端
+     */
+    public ZookeeperLockRegistry(final ZookeeperClient zookeeperClient) {
+        this(zookeeperClient.getClient(), ZookeeperConstants.FILE_SEPARATOR + ZookeeperConstants.LOCK);
+    }
+
+    /**
+     * 构造函数
+     * @param client 已启动的Curator客户端
+     * @param root 锁节点的根路径
+     */
+    public ZookeeperLockRegistry(final CuratorFramework client, final String root) {
+        Preconditions.checkNotNull(client, "client must not be null");
+        PathUtils.validatePath(root);
+        this.client = client;
+        this.root = root;
+        this.client.getConnectionStateListenable().addListener((curator, newState) -> {
+            if (newState == ConnectionState.LOST) {
+                sessionLostCount.incrementAndGet();
+                log.error("zk session lost, locks held by this process are no longer exclusive");
+            } else if (newState == ConnectionState.SUSPENDED) {
+                log.warn("zk connection suspended, locks held by this process may be lost");
+            }
+        });
+    }
+
+    @Override
+    public Lock obtain(final Object lockKey) {
+        Preconditions.checkNotNull(lockKey, "'lockKey' must not be null");
+        String path = ZKPaths.makePath(root, lockKey.toString());
+        PathUtils.validatePath(path);
+        ZkLock lock = locks.computeIfAbsent(path, ZkLock::new);
+        lock.touch();
+        return lock;
+    }
+
+    /**
+     * 获取多个key的组合锁, 按节点路径排序获取, 各进程顺序一致, 不会互相死锁
+     * @param lockKeys key
+     * @return 组合锁
+     */
+    @Override
+    public Lock obtainAll(final Collection<?> lockKeys) {
+        Preconditions.checkArgument(lockKeys != null && !lockKeys.isEmpty(), "'lockKeys' must not be empty");
+        SortedMap<String, Object> paths = new TreeMap<String, Object>();
+        for (Object lockKey : lockKeys) {
+            paths.put(ZKPaths.makePath(root, lockKey.toString()), lockKey);
+        }
+        List<Lock> ordered = new ArrayList<Lock>(paths.size());
+        for (Object lockKey : paths.values()) {
+            ordered.add(obtain(lockKey));
+        }
+        return new CompositeLock(ordered);
+    }
+
+    /**
+     * 当前线程是否仍持有key对应的锁, 获取锁后发生过会话丢失时返回false
+     * @param lockKey key
+     * @return boolean
+     */
+    public boolean isHeld(final Object lockKey) {
+        ZkLock lock = locks.get(ZKPaths.makePath(root, lockKey.toString()));
+        return lock != null && lock.isHeld();
+    }
+
+    @Override
+    public void expireUnusedOlderThan(final long age) {
+        long olderThan = System.currentTimeMillis() - age;
+        for (Map.Entry<String, ZkLock> entry : locks.entrySet()) {
+            entry.getValue().tryExpire(olderThan);
+        }
+    }
+
+    /**
+     * 单个key的锁, 先本地锁后zk锁; 从registry移除后不再使用, 之后获取到它的线程释放后改用registry中当前的锁
+     */
+    private final class ZkLock implements Lock {
+
+        private final String path;
+
+        private final ReentrantLock localLock = new ReentrantLock();
+
+        private final InterProcessMutex mutex;
+
+        private volatile long lastAcquired = System.currentTimeMillis();
+
+        /** 获取zk锁时的会话丢失次数 */
+        private volatile long acquiredSessionLostCount;
+
+        /** 只在持有localLock时修改 */
+        private volatile boolean removed;
+
+        ZkLock(final String path) {
+            this.path = path;
+            this.mutex = new InterProcessMutex(client, path);
+        }
+
+        void touch() {
+            lastAcquired = System.currentTimeMillis();
+        }
+
+        boolean isHeld() {
+            ZkLock lock = removed ? locks.get(path) : this;
+            return lock != null && lock.localLock.isHeldByCurrentThread() && lock.mutex.isAcquiredInThisProcess()
+                    && lock.acquiredSessionLostCount == sessionLostCount.get();
+        }
+
+        void tryExpire(final long olderThan) {
+            if (lastAcquired >= olderThan || !localLock.tryLock()) {
+                return;
+            }
+            try {
+                if (lastAcquired < olderThan && localLock.getHoldCount() == 1 && !localLock.hasQueuedThreads()) {
+                    removed = true;
+                    locks.remove(path, this);
+                }
+            } finally {
+                localLock.unlock();
+            }
+        }
+
+        private ZkLock current() {
+            return locks.computeIfAbsent(path, ZkLock::new);
+        }
+
+        @Override
+        public void lock() {
+            // lock()不响应中断, 等待zk锁时被中断则重新获取, 获取后恢复中断标记
+            boolean interrupted = false;
+            ZkLock lock = this;
+            while (true) {
+                lock.localLock.lock();
+                if (lock.removed) {
+                    lock.localLock.unlock();
+                    lock = current();
+                    continue;
+                }
+                try {
+                    lock.acquireMutex(-1L);
+                    break;
+                } catch (final InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            ZkLock lock = this;
+            while (true) {
+                lock.localLock.lockInterruptibly();
+                if (!lock.removed) {
+                    break;
+                }
+                lock.localLock.unlock();
+                lock = current();
+            }
+            lock.acquireMutex(-1L);
+        }
+
+        @Override
+        public boolean tryLock() {
+            try {
+                return tryLock(0L, TimeUnit.MILLISECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        @Override
+        public boolean tryLock(final long time, final TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(time);
+            ZkLock lock = this;
+            while (true) {
+                if (!lock.localLock.tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    return false;
+                }
+                if (!lock.removed) {
+                    break;
+                }
+                lock.localLock.unlock();
+                lock = current();
+            }
+            return lock.acquireMutex(Math.max(0L, deadline - System.nanoTime()));
+        }
+
+        /**
+         * 持有本地锁后获取zk锁, 本地重入时直接返回
+         * @param nanos 等待时间, 小于0时一直等待
+         * @return 是否获取成功, 失败时已释放本地锁
+         * @throws InterruptedException 等待zk锁时被中断, 已释放本地锁
+         */
+        private boolean acquireMutex(final long nanos) throws InterruptedException {
+            touch();
+            if (localLock.getHoldCount() > 1) {
+                return true;
+            }
+            boolean acquired = false;
+            try {
+                if (nanos < 0) {
+                    mutex.acquire();
+                    acquired = true;
+                } else {
+                    acquired = mutex.acquire(nanos, TimeUnit.NANOSECONDS);
+                }
+                if (acquired) {
+                    acquiredSessionLostCount = sessionLostCount.get();
+                }
+                return acquired;
+            } catch (final InterruptedException e) {
+                throw e;
+            } catch (final Exception e) {
+                throw new IllegalStateException("acquire zk lock [" + path + "] error:" + e.getMessage(), e);
+            } finally {
+                if (!acquired) {
+                    localLock.unlock();
+                }
+            }
+        }
+
+        @Override
+        public void unlock() {
+            ZkLock lock = removed ? locks.get(path) : this;
+            if (lock == null || !lock.localLock.isHeldByCurrentThread()) {
+                throw new IllegalMonitorStateException("lock [" + path + "] is not held by current thread");
+            }
+            try {
+                if (lock.localLock.getHoldCount() == 1) {
+                    lock.mutex.release();
+                }
+            } catch (final Exception e) {
+                // 会话丢失后节点已被删除
+                log.warn("release zk lock [{}] error:{}", path, e.getMessage());
+            } finally {
+                lock.localLock.unlock();
+            }
+        }
+
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException("Conditions are not supported");
+        }
+    }
+}
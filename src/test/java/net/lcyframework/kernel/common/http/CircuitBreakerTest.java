@@ -0,0 +1,166 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.common.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import net.lcyframework.kernel.core.exception.SysException;
+
+/**
+ * <pre>
+ * 名称: CircuitBreakerTest
+ * 描述: 熔断状态变化, 以及跨状态归还的许可不影响当前状态
+ * </pre>
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+public class CircuitBreakerTest {
+
+    private CircuitBreakerConfig config;
+
+    @Before
+    public void setUp() {
+        config = new CircuitBreakerConfig();
+        config.setWindowSize(4);
+        config.setMinimumCalls(2);
+        config.setFailureRateThreshold(50);
+        config.setHalfOpenCalls(2);
+        config.setWaitDurationInOpen(0L);
+        config.setMaxConcurrentCalls(0);
+    }
+
+    @Test
+    public void testOpensAndClosesThroughHalfOpenProbes() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", config);
+        open(circuitBreaker);
+        long probe1 = circuitBreaker.acquirePermission();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        long probe2 = circuitBreaker.acquirePermission();
+        assertNotPermitted(circuitBreaker);
+        circuitBreaker.onResult(probe1, true, 0L);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        circuitBreaker.onResult(probe2, true, 0L);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testFailedProbeReopens() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", config);
+        open(circuitBreaker);
+        long probe1 = circuitBreaker.acquirePermission();
+        long probe2 = circuitBreaker.acquirePermission();
+        circuitBreaker.onResult(probe1, false, 0L);
+        circuitBreaker.onResult(probe2, true, 0L);
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testStaleFailureDoesNotReopenHalfOpen() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", config);
+        long stale = circuitBreaker.acquirePermission();
+        open(circuitBreaker);
+        long probe1 = circuitBreaker.acquirePermission();
+        long probe2 = circuitBreaker.acquirePermission();
+        circuitBreaker.onResult(stale, false, 0L);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertEquals(0, circuitBreaker.getBufferedCalls());
+        circuitBreaker.onResult(probe1, true, 0L);
+        circuitBreaker.onResult(probe2, true, 0L);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testStaleSuccessesDoNotCloseHalfOpen() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", config);
+        long stale1 = circuitBreaker.acquirePermission();
+        long stale2 = circuitBreaker.acquirePermission();
+        open(circuitBreaker);
+        circuitBreaker.acquirePermission();
+        circuitBreaker.onResult(stale1, true, 0L);
+        circuitBreaker.onResult(stale2, true, 0L);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertEquals(0, circuitBreaker.getBufferedCalls());
+    }
+
+    @Test
+    public void testStaleReleaseDoesNotAddHalfOpenPermit() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", config);
+        long stale = circuitBreaker.acquirePermission();
+        open(circuitBreaker);
+        circuitBreaker.acquirePermission();
+        circuitBreaker.acquirePermission();
+        circuitBreaker.releasePermission(stale);
+        assertNotPermitted(circuitBreaker);
+    }
+
+    @Test
+    public void testReleasedProbeReturnsHalfOpenPermit() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", config);
+        open(circuitBreaker);
+        long probe1 = circuitBreaker.acquirePermission();
+        circuitBreaker.acquirePermission();
+        circuitBreaker.releasePermission(probe1);
+        circuitBreaker.acquirePermission();
+        assertNotPermitted(circuitBreaker);
+    }
+
+    @Test
+    public void testBulkheadRejectReturnsOnlyItsOwnHalfOpenPermit() {
+        config.setHalfOpenCalls(3);
+        config.setMaxConcurrentCalls(2);
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", config);
+        open(circuitBreaker);
+        long probe1 = circuitBreaker.acquirePermission();
+        circuitBreaker.acquirePermission();
+        assertBulkheadFull(circuitBreaker, 1L);
+        circuitBreaker.releasePermission(probe1);
+        circuitBreaker.acquirePermission();
+        assertBulkheadFull(circuitBreaker, 2L);
+        // 拒绝时只归还本次获取的探测许可, 舱壁许可不变
+        assertEquals(0, circuitBreaker.getAvailableConcurrentCalls());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+    }
+
+    private void open(final CircuitBreaker circuitBreaker) {
+        for (int i = 0; i < config.getMinimumCalls(); i++) {
+            circuitBreaker.onResult(circuitBreaker.acquirePermission(), false, 0L);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    private void assertBulkheadFull(final CircuitBreaker circuitBreaker, final long rejected) {
+        try {
+            circuitBreaker.acquirePermission();
+            fail("expected bulkhead rejection");
+        } catch (final SysException e) {
+            assertEquals(rejected, circuitBreaker.getBulkheadRejectedCount());
+        }
+    }
+
+    private void assertNotPermitted(final CircuitBreaker circuitBreaker) {
+        try {
+            circuitBreaker.acquirePermission();
+            fail("expected call not permitted");
+        } catch (final SysException e) {
+            assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        }
+    }
+}
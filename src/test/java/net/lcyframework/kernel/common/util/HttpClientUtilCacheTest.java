@@ -0,0 +1,131 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.kernel.common.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.message.BasicHeader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import net.lcyframework.kernel.common.http.HttpResponseCache;
+import net.lcyframework.kernel.core.config.BaseProperties;
+
+/**
+ * <pre>
+ * 名称: HttpClientUtilCacheTest
+ * 描述: 带缓存的get请求按全部请求头区分缓存, 不缓存Vary和private响应
+ * 本地服务返回请求的Authorization头, 并通过path指定额外的响应头;
+ * 合并请求只按Accept区分, 缓存不受该配置影响
+ * </pre>
+ * @author Jimmy Li
+ * @since 1.0.0
+ */
+public class HttpClientUtilCacheTest {
+
+    private HttpServer server;
+
+    private String baseUrl;
+
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    @BeforeClass
+    public static void setUpClass() {
+        // 需在HttpClientUtil初始化前设置
+        BaseProperties.setProperty("httpclient.coalesce.headers", HttpHeaders.ACCEPT);
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        HttpResponseCache.invalidateAll();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        HttpResponseCache.invalidateAll();
+    }
+
+    @Test
+    public void testDifferentAuthorizationDoesNotShareEntry() {
+        String url = baseUrl + "/public";
+        assertEquals("token-a", HttpClientUtil.sendHttpGetCached(url, authorization("token-a")));
+        assertEquals("token-b", HttpClientUtil.sendHttpGetCached(url, authorization("token-b")));
+        assertEquals(2, requestCount.get());
+        // 各自的缓存仍然有效
+        assertEquals("token-a", HttpClientUtil.sendHttpGetCached(url, authorization("token-a")));
+        assertEquals("token-b", HttpClientUtil.sendHttpGetCached(url, authorization("token-b")));
+        assertEquals(2, requestCount.get());
+    }
+
+    @Test
+    public void testVaryResponseIsNotCached() {
+        String url = baseUrl + "/vary";
+        HttpClientUtil.sendHttpGetCached(url, authorization("token-a"));
+        HttpClientUtil.sendHttpGetCached(url, authorization("token-a"));
+        assertEquals(2, requestCount.get());
+        assertEquals(0, HttpResponseCache.size());
+    }
+
+    @Test
+    public void testPrivateResponseIsNotCached() {
+        String url = baseUrl + "/private";
+        HttpClientUtil.sendHttpGetCached(url, authorization("token-a"));
+        HttpClientUtil.sendHttpGetCached(url, authorization("token-a"));
+        assertEquals(2, requestCount.get());
+        assertEquals(0, HttpResponseCache.size());
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        String path = exchange.getRequestURI().getPath();
+        if (path.endsWith("/vary")) {
+            exchange.getResponseHeaders().add(HttpHeaders.CACHE_CONTROL, "max-age=60");
+            exchange.getResponseHeaders().add(HttpHeaders.VARY, HttpHeaders.AUTHORIZATION);
+        } else if (path.endsWith("/private")) {
+            exchange.getResponseHeaders().add(HttpHeaders.CACHE_CONTROL, "private, max-age=60");
+        } else {
+            exchange.getResponseHeaders().add(HttpHeaders.CACHE_CONTROL, "max-age=60");
+        }
+        String authorization = exchange.getRequestHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        byte[] body = String.valueOf(authorization).getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+
+    private static BasicHeader authorization(final String token) {
+        return new BasicHeader(HttpHeaders.AUTHORIZATION, token);
+    }
+}
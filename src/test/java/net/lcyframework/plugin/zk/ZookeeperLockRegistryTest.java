@@ -0,0 +1,140 @@
+/*
+ * Copyright © 2015-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.lcyframework.plugin.zk;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.CuratorFrameworkFactory;
+import org.apache.curator.retry.RetryOneTime;
+import org.apache.curator.test.TestingServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * <pre>
+ * 名称: ZookeeperLockRegistryTest
+ * 描述: 两个客户端模拟两个进程竞争同一把zk锁
+ * </pre>
+ * @author yto.net.cn
+ * @since 1.0.0
+ */
+public class ZookeeperLockRegistryTest {
+
+    private static final String ROOT = "/lock";
+
+    private static final String KEY = "order-1";
+
+    private TestingServer server;
+
+    private CuratorFramework client1;
+
+    private CuratorFramework client2;
+
+    private ZookeeperLockRegistry registry1;
+
+    private ZookeeperLockRegistry registry2;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new TestingServer();
+        client1 = newClient();
+        client2 = newClient();
+        registry1 = new ZookeeperLockRegistry(client1, ROOT);
+        registry2 = new ZookeeperLockRegistry(client2, ROOT);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        client1.close();
+        client2.close();
+        server.close();
+    }
+
+    @Test
+    public void testContendedLockIsExclusiveAcrossClients() throws Exception {
+        Lock lock1 = registry1.obtain(KEY);
+        lock1.lock();
+        try {
+            Lock lock2 = registry2.obtain(KEY);
+            assertFalse(lock2.tryLock());
+            assertFalse(lock2.tryLock(200, TimeUnit.MILLISECONDS));
+        } finally {
+            lock1.unlock();
+        }
+        Lock lock2 = registry2.obtain(KEY);
+        assertTrue(lock2.tryLock(5, TimeUnit.SECONDS));
+        lock2.unlock();
+    }
+
+    @Test
+    public void testLockInterruptiblyReleasesLocalLockWhenInterrupted() throws Exception {
+        Lock lock1 = registry1.obtain(KEY);
+        lock1.lock();
+        try {
+            assertInterrupted(() -> registry2.obtain(KEY).lockInterruptibly());
+            assertInterrupted(() -> registry2.obtain(KEY).tryLock(1, TimeUnit.MINUTES));
+        } finally {
+            lock1.unlock();
+        }
+        // 被中断的线程不再持有本地锁, 同一进程的其他线程可以获取
+        Lock lock2 = registry2.obtain(KEY);
+        assertTrue(lock2.tryLock(5, TimeUnit.SECONDS));
+        lock2.unlock();
+    }
+
+    private void assertInterrupted(final Acquisition acquisition) throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicReference<Throwable> thrown = new AtomicReference<Throwable>();
+        Thread waiter = new Thread(() -> {
+            started.countDown();
+            try {
+                acquisition.acquire();
+            } catch (final Throwable e) {
+                thrown.set(e);
+            }
+        });
+        waiter.start();
+        started.await();
+        // 等待线程进入zk锁的等待
+        Thread.sleep(500);
+        waiter.interrupt();
+        waiter.join(TimeUnit.SECONDS.toMillis(5));
+        if (waiter.isAlive() || !(thrown.get() instanceof InterruptedException)) {
+            fail("expected InterruptedException but got " + thrown.get());
+        }
+    }
+
+    private CuratorFramework newClient() {
+        CuratorFramework client = CuratorFrameworkFactory.newClient(server.getConnectString(), new RetryOneTime(100));
+        client.start();
+        return client;
+    }
+
+    private interface Acquisition {
+
+        void acquire() throws InterruptedException;
+    }
+}